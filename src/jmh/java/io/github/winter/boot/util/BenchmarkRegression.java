@@ -0,0 +1,154 @@
+package io.github.winter.boot.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 性能回归检查
+ * 对比两次 JMH 结果（-rf json），按 benchmark + params 匹配
+ * 吞吐量下降超过阈值，或每次操作的分配量（gc.alloc.rate.norm）增长超过阈值时，退出码 1
+ * 吞吐量与机器相关，基线须在同一机器、同一 JDK 上生成；分配量基本与机器无关
+ * <pre>
+ * java -cp target/benchmarks.jar io.github.winter.boot.util.BenchmarkRegression \
+ *     benchmarks/baseline.json target/jmh-result.json [throughputThreshold] [allocationThreshold]
+ * </pre>
+ *
+ * @author changebooks@qq.com
+ */
+public final class BenchmarkRegression {
+    /**
+     * 默认的吞吐量阈值，下降超过 20% 视为回归
+     */
+    public static final double DEFAULT_THROUGHPUT_THRESHOLD = 0.20d;
+
+    /**
+     * 默认的分配量阈值，增长超过 10% 视为回归
+     */
+    public static final double DEFAULT_ALLOCATION_THRESHOLD = 0.10d;
+
+    /**
+     * 分配量的绝对容差，字节，忽略很小的分配量的波动
+     */
+    public static final double ALLOCATION_TOLERANCE_BYTES = 64.0d;
+
+    /**
+     * 每次操作的分配量
+     */
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BenchmarkRegression() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkRegression <baseline.json> <current.json> [throughputThreshold] [allocationThreshold]");
+            System.exit(2);
+        }
+
+        double throughputThreshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THROUGHPUT_THRESHOLD;
+        double allocationThreshold = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_ALLOCATION_THRESHOLD;
+
+        Map<String, JsonNode> baseline = load(Paths.get(args[0]));
+        Map<String, JsonNode> current = load(Paths.get(args[1]));
+
+        int regressions = compare(baseline, current, throughputThreshold, allocationThreshold);
+        System.out.printf("%d benchmark(s) compared, %d regression(s)%n", baseline.size(), regressions);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * 对比，打印每项结果
+     *
+     * @param baseline            基线
+     * @param current             本次
+     * @param throughputThreshold 吞吐量阈值，eg: 0.2
+     * @param allocationThreshold 分配量阈值，eg: 0.1
+     * @return 回归的数量，本次缺少的基线项也计入
+     */
+    public static int compare(Map<String, JsonNode> baseline, Map<String, JsonNode> current,
+                              double throughputThreshold, double allocationThreshold) {
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : baseline.entrySet()) {
+            String key = entry.getKey();
+            JsonNode before = entry.getValue();
+            JsonNode after = current.get(key);
+            if (after == null) {
+                System.out.printf("MISSING     %s%n", key);
+                regressions++;
+                continue;
+            }
+
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            double afterScore = after.path("primaryMetric").path("score").asDouble();
+            boolean slower = afterScore < beforeScore * (1.0d - throughputThreshold);
+
+            double beforeAlloc = allocation(before);
+            double afterAlloc = allocation(after);
+            boolean heavier = beforeAlloc >= 0.0d && afterAlloc >= 0.0d
+                    && afterAlloc > beforeAlloc * (1.0d + allocationThreshold) + ALLOCATION_TOLERANCE_BYTES;
+
+            if (slower || heavier) {
+                regressions++;
+            }
+
+            System.out.printf("%-11s %s  ops/s %.1f -> %.1f (%+.1f%%)  B/op %.1f -> %.1f%n",
+                    slower || heavier ? "REGRESSION" : "OK", key,
+                    beforeScore, afterScore, change(beforeScore, afterScore), beforeAlloc, afterAlloc);
+        }
+
+        return regressions;
+    }
+
+    /**
+     * 读 JMH 结果，benchmark + params : 结果
+     *
+     * @param path JMH 结果文件（-rf json）
+     * @return 按 key 排序
+     * @throws IOException 读失败或格式错误
+     */
+    public static Map<String, JsonNode> load(Path path) throws IOException {
+        JsonNode root = JsonParser.fromJson(FileUtils.readBytes(path), JsonNode.class);
+        if (root == null || !root.isArray()) {
+            throw new IOException("not a JMH json result: " + path);
+        }
+
+        Map<String, JsonNode> result = new TreeMap<>();
+        for (JsonNode node : root) {
+            result.put(key(node), node);
+        }
+        return result;
+    }
+
+    /**
+     * benchmark + params，eg: "io.github.winter.boot.util.JsonParserBenchmark.toJson{size=10}"
+     */
+    private static String key(JsonNode node) {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonNode> param : node.path("params").properties()) {
+            params.put(param.getKey(), param.getValue().asText());
+        }
+        return node.path("benchmark").asText() + params;
+    }
+
+    /**
+     * 每次操作的分配量，字节，没有 -prof gc 时 return -1
+     */
+    private static double allocation(JsonNode node) {
+        JsonNode metric = node.path("secondaryMetrics").path(ALLOCATION_METRIC);
+        return metric.isMissingNode() ? -1.0d : metric.path("score").asDouble();
+    }
+
+    /**
+     * 变化百分比
+     */
+    private static double change(double before, double after) {
+        return before == 0.0d ? 0.0d : (after - before) * 100.0d / before;
+    }
+
+}
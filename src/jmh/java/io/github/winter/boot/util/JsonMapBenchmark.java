@@ -0,0 +1,150 @@
+package io.github.winter.boot.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 解析Json和Map，性能测试
+ * 吞吐量和每次操作的分配量（-prof gc）
+ *
+ * @author changebooks@qq.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonMapBenchmark {
+    /**
+     * 数据量：小、中、大
+     */
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private Map<String, Object> objects;
+    private Map<String, String> strings;
+    private Map<String, Integer> integers;
+    private Map<String, Long> longs;
+    private Map<String, BigDecimal> decimals;
+    private Map<String, Date> dates;
+    private StringLongMap longMap;
+    private StringIntMap intMap;
+
+    private String objectsJson;
+    private String stringsJson;
+    private String integersJson;
+    private String longsJson;
+    private String decimalsJson;
+    private String datesJson;
+
+    @Setup
+    public void setup() {
+        objects = JsonPayloads.map(size, i -> i % 2 == 0 ? "value-" + i : i);
+        strings = JsonPayloads.map(size, i -> "value-" + i);
+        integers = JsonPayloads.map(size, i -> i);
+        longs = JsonPayloads.map(size, i -> i * 1000000007L);
+        decimals = JsonPayloads.map(size, i -> BigDecimal.valueOf(i, 2));
+        dates = JsonPayloads.map(size, i -> new Date(1767225600000L + i * 1000L));
+
+        objectsJson = JsonMap.writeObject(objects);
+        stringsJson = JsonMap.writeString(strings);
+        integersJson = JsonMap.writeInteger(integers);
+        longsJson = JsonMap.writeLong(longs);
+        decimalsJson = JsonMap.writeBigDecimal(decimals);
+        datesJson = JsonMap.writeDate(dates);
+
+        longMap = JsonMap.readLongMap(longsJson);
+        intMap = JsonMap.readIntMap(integersJson);
+    }
+
+    @Benchmark
+    public String writeObject() {
+        return JsonMap.writeObject(objects);
+    }
+
+    @Benchmark
+    public Map<String, Object> readObject() {
+        return JsonMap.readObject(objectsJson);
+    }
+
+    @Benchmark
+    public String writeString() {
+        return JsonMap.writeString(strings);
+    }
+
+    @Benchmark
+    public Map<String, String> readString() {
+        return JsonMap.readString(stringsJson);
+    }
+
+    @Benchmark
+    public String writeInteger() {
+        return JsonMap.writeInteger(integers);
+    }
+
+    @Benchmark
+    public Map<String, Integer> readInteger() {
+        return JsonMap.readInteger(integersJson);
+    }
+
+    @Benchmark
+    public String writeLong() {
+        return JsonMap.writeLong(longs);
+    }
+
+    @Benchmark
+    public Map<String, Long> readLong() {
+        return JsonMap.readLong(longsJson);
+    }
+
+    @Benchmark
+    public String writeBigDecimal() {
+        return JsonMap.writeBigDecimal(decimals);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> readBigDecimal() {
+        return JsonMap.readBigDecimal(decimalsJson);
+    }
+
+    @Benchmark
+    public String writeDate() {
+        return JsonMap.writeDate(dates);
+    }
+
+    @Benchmark
+    public Map<String, Date> readDate() {
+        return JsonMap.readDate(datesJson);
+    }
+
+    @Benchmark
+    public String writeLongMap() {
+        return JsonMap.writeLongMap(longMap);
+    }
+
+    @Benchmark
+    public StringLongMap readLongMap() {
+        return JsonMap.readLongMap(longsJson);
+    }
+
+    @Benchmark
+    public String writeIntMap() {
+        return JsonMap.writeIntMap(intMap);
+    }
+
+    @Benchmark
+    public StringIntMap readIntMap() {
+        return JsonMap.readIntMap(integersJson);
+    }
+
+    @Benchmark
+    public Object readLazy() {
+        return JsonMap.readLazy(objectsJson).get("key-1");
+    }
+
+}
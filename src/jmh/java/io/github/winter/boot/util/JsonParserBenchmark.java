@@ -0,0 +1,78 @@
+package io.github.winter.boot.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 解析Json，性能测试
+ * 吞吐量和每次操作的分配量（-prof gc）
+ *
+ * @author changebooks@qq.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonParserBenchmark {
+    /**
+     * 数据量：小、中、大
+     */
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private JsonPayloads.Order order;
+    private String orderJson;
+    private byte[] orderBytes;
+    private String itemsJson;
+    private JsonCodec<JsonPayloads.Order> codec;
+
+    @Setup
+    public void setup() {
+        order = JsonPayloads.order(size);
+        orderJson = JsonParser.toJson(order);
+        orderBytes = orderJson.getBytes(StandardCharsets.UTF_8);
+        itemsJson = JsonParser.toJson(JsonPayloads.items(size));
+        codec = JsonParser.codec(JsonPayloads.Order.class);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return JsonParser.toJson(order);
+    }
+
+    @Benchmark
+    public byte[] toJsonBytes() {
+        return JsonParser.toJsonBytes(order);
+    }
+
+    @Benchmark
+    public JsonPayloads.Order fromJson() {
+        return JsonParser.fromJson(orderJson, JsonPayloads.Order.class);
+    }
+
+    @Benchmark
+    public JsonPayloads.Order fromJsonBytes() {
+        return JsonParser.fromJson(orderBytes, JsonPayloads.Order.class);
+    }
+
+    @Benchmark
+    public JsonPayloads.Order codecFromJson() {
+        return codec.fromJson(orderBytes);
+    }
+
+    @Benchmark
+    public List<JsonPayloads.Item> fromList() {
+        return JsonParser.fromList(itemsJson, JsonPayloads.Item.class);
+    }
+
+    @Benchmark
+    public long extract() {
+        return JsonParser.extract(orderBytes, "/id").getLong(0, 0L);
+    }
+
+}
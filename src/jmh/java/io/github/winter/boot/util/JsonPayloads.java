@@ -0,0 +1,100 @@
+package io.github.winter.boot.util;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * 性能测试数据
+ * 固定随机种子，每次生成相同的数据
+ *
+ * @author changebooks@qq.com
+ */
+public final class JsonPayloads {
+    /**
+     * 随机种子
+     */
+    private static final long SEED = 20260101L;
+
+    private JsonPayloads() {
+    }
+
+    /**
+     * 订单，items 数量 = size
+     *
+     * @param size 数量
+     * @return the order
+     */
+    public static Order order(int size) {
+        Random random = new Random(SEED);
+
+        Order r = new Order();
+        r.id = random.nextLong();
+        r.customer = "customer-" + random.nextInt(100000);
+        r.createdAt = new Date(1767225600000L + random.nextInt(86400000));
+        r.items = items(size, random);
+        return r;
+    }
+
+    /**
+     * 商品列表
+     *
+     * @param size 数量
+     * @return the items
+     */
+    public static List<Item> items(int size) {
+        return items(size, new Random(SEED));
+    }
+
+    /**
+     * Map，value 由 index 生成
+     *
+     * @param size  数量
+     * @param value index to value
+     * @param <T>   the type of value
+     * @return the map
+     */
+    public static <T> Map<String, T> map(int size, IntFunction<T> value) {
+        Map<String, T> r = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            r.put("key-" + i, value.apply(i));
+        }
+        return r;
+    }
+
+    private static List<Item> items(int size, Random random) {
+        List<Item> r = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item();
+            item.sku = "sku-" + i;
+            item.name = "商品-" + random.nextInt(1000000);
+            item.quantity = 1 + random.nextInt(10);
+            item.price = BigDecimal.valueOf(random.nextInt(1000000), 2);
+            item.tags = Arrays.asList("tag-" + random.nextInt(100), "tag-" + random.nextInt(100));
+            r.add(item);
+        }
+        return r;
+    }
+
+    /**
+     * 订单
+     */
+    public static class Order {
+        public long id;
+        public String customer;
+        public Date createdAt;
+        public List<Item> items;
+    }
+
+    /**
+     * 商品
+     */
+    public static class Item {
+        public String sku;
+        public String name;
+        public int quantity;
+        public BigDecimal price;
+        public List<String> tags;
+    }
+
+}
@@ -0,0 +1,495 @@
+package io.github.winter.boot.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步追加写，组提交
+ * 生产者无锁入队，后台线程批量取出，一次 FileChannel.write(ByteBuffer[]) 写入
+ * 队列满时阻塞生产者，按间隔刷盘
+ * 记录原样写入，不加分隔符；入队后不要修改记录的数组
+ * 线程安全，通过 {@link #open(Path, int, long, long)} 获取，用完须关闭
+ *
+ * @author changebooks@qq.com
+ */
+public final class AppendWriter implements Closeable {
+    /**
+     * 默认的队列容量，记录数
+     */
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    /**
+     * 每批最多的记录数，不超过系统的 IOV_MAX
+     */
+    public static final int MAX_GATHER = 1024;
+
+    /**
+     * 空闲时的最长等待，纳秒
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    /**
+     * 写线程名前缀
+     */
+    private static final String THREAD_NAME_PREFIX = "append-writer-";
+
+    /**
+     * 文件
+     */
+    private final Path path;
+
+    /**
+     * 文件，追加模式
+     */
+    private final FileChannel channel;
+
+    /**
+     * 队列容量
+     */
+    private final int capacity;
+
+    /**
+     * 攒批时，队列中达到多少记录立即写，min(MAX_GATHER, capacity / 2)
+     */
+    private final int batchThreshold;
+
+    /**
+     * 攒批间隔，纳秒，0 有记录立即写
+     */
+    private final long flushIntervalNanos;
+
+    /**
+     * 刷盘间隔，纳秒，0 每批刷盘，负数不刷盘（关闭时除外）
+     */
+    private final long fsyncIntervalNanos;
+
+    /**
+     * 待写的记录
+     */
+    private final ConcurrentLinkedQueue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 队列的空位
+     */
+    private final Semaphore permits;
+
+    /**
+     * 正在入队的生产者数
+     */
+    private final AtomicInteger activeAppends = new AtomicInteger();
+
+    /**
+     * 已入队的记录数
+     */
+    private final LongAdder appended = new LongAdder();
+
+    /**
+     * 等待 flush 的监视器
+     */
+    private final Object flushMonitor = new Object();
+
+    /**
+     * 写线程，平台守护线程
+     * 长期运行，大部分时间在 FileChannel 的 write、force 上阻塞，文件 IO 会占住虚拟线程的载体线程，用虚拟线程没有收益
+     */
+    private final Thread writer;
+
+    /**
+     * 写线程在等待？
+     */
+    private volatile boolean parked;
+
+    /**
+     * 已关闭？
+     */
+    private volatile boolean closed;
+
+    /**
+     * 写失败的原因
+     */
+    private volatile IOException failure;
+
+    /**
+     * flush 等待写到的记录数，未达到前不攒批
+     */
+    private volatile long flushTarget;
+
+    /**
+     * 已写的记录数，只由写线程更新
+     */
+    private volatile long writtenRecords;
+
+    /**
+     * 已写的字节数，只由写线程更新
+     */
+    private volatile long writtenBytes;
+
+    /**
+     * 已写的批数，只由写线程更新
+     */
+    private volatile long batches;
+
+    private AppendWriter(Path path, FileChannel channel, int capacity, long flushIntervalMillis, long fsyncIntervalMillis) {
+        this.path = path;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.batchThreshold = Math.min(MAX_GATHER, Math.max(1, capacity >> 1));
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.fsyncIntervalNanos = fsyncIntervalMillis < 0 ? -1L : TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.permits = new Semaphore(capacity);
+        this.writer = new Thread(this::run, THREAD_NAME_PREFIX + path.getFileName());
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * 打开，默认容量，有记录立即写，不按间隔刷盘
+     *
+     * @param path 文件，不存在时创建
+     * @return the {@link AppendWriter} instance
+     * @throws IOException 打开失败
+     */
+    public static AppendWriter open(Path path) throws IOException {
+        return open(path, DEFAULT_CAPACITY, 0L, -1L);
+    }
+
+    /**
+     * 打开
+     *
+     * @param path                文件，不存在时创建
+     * @param capacity            队列容量，记录数，满时阻塞生产者
+     * @param flushIntervalMillis 攒批间隔，毫秒，0 有记录立即写，&gt; 0 每隔多久写一次（攒满一批或半个队列时立即写）
+     * @param fsyncIntervalMillis 刷盘间隔，毫秒，0 每批刷盘，&gt; 0 每隔多久刷盘，&lt; 0 只在关闭时刷盘
+     * @return the {@link AppendWriter} instance
+     * @throws IOException 打开失败
+     */
+    public static AppendWriter open(Path path, int capacity, long flushIntervalMillis, long fsyncIntervalMillis) throws IOException {
+        AssertUtils.nonNull(path, "path");
+        AssertUtils.isPositive(capacity, "capacity");
+        AssertUtils.nonNegative(flushIntervalMillis, "flushIntervalMillis");
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        AppendWriter result = new AppendWriter(path, channel, capacity, flushIntervalMillis, fsyncIntervalMillis);
+        result.writer.start();
+        return result;
+    }
+
+    /**
+     * 追加，队列满时阻塞
+     *
+     * @param s       文本内容
+     * @param charset 字符集
+     * @throws IOException 已关闭、写失败或被中断
+     */
+    public void append(String s, Charset charset) throws IOException {
+        AssertUtils.nonNull(s, "s");
+        AssertUtils.nonNull(charset, "charset");
+
+        append(s.getBytes(charset));
+    }
+
+    /**
+     * 追加，队列满时阻塞
+     *
+     * @param record 记录
+     * @throws IOException 已关闭、写失败或被中断
+     */
+    public void append(byte[] record) throws IOException {
+        enqueue(record, -1L);
+    }
+
+    /**
+     * 追加，队列满时不阻塞
+     *
+     * @param record 记录
+     * @return 已入队 ? true : false
+     * @throws IOException 已关闭或写失败
+     */
+    public boolean tryAppend(byte[] record) throws IOException {
+        return enqueue(record, 0L);
+    }
+
+    /**
+     * 追加，队列满时最多等待 timeout
+     *
+     * @param record  记录
+     * @param timeout 最长等待
+     * @param unit    时间单位
+     * @return 已入队 ? true : false
+     * @throws IOException 已关闭、写失败或被中断
+     */
+    public boolean tryAppend(byte[] record, long timeout, TimeUnit unit) throws IOException {
+        AssertUtils.nonNegative(timeout, "timeout");
+        AssertUtils.nonNull(unit, "unit");
+
+        return enqueue(record, unit.toNanos(timeout));
+    }
+
+    /**
+     * 等待已入队的记录写完并刷盘
+     *
+     * @throws IOException 写失败或被中断
+     */
+    public void flush() throws IOException {
+        long target = appended.sum();
+        synchronized (flushMonitor) {
+            flushTarget = Math.max(flushTarget, target);
+        }
+        LockSupport.unpark(writer);
+
+        synchronized (flushMonitor) {
+            while (writtenRecords < target && writer.isAlive()) {
+                checkFailure();
+                try {
+                    flushMonitor.wait(TimeUnit.NANOSECONDS.toMillis(IDLE_PARK_NANOS));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("flush interrupted");
+                }
+            }
+        }
+
+        checkFailure();
+        if (channel.isOpen()) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * 关闭，写完已入队的记录，刷盘后关闭文件
+     *
+     * @throws IOException 写失败或被中断
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("close interrupted");
+        }
+
+        checkFailure();
+    }
+
+    /**
+     * 入队
+     *
+     * @param timeoutNanos 负数一直等待，0 不等待
+     */
+    private boolean enqueue(byte[] record, long timeoutNanos) throws IOException {
+        AssertUtils.nonNull(record, "record");
+
+        activeAppends.incrementAndGet();
+        try {
+            checkOpen();
+            if (!acquire(timeoutNanos)) {
+                return false;
+            }
+
+            if (closed || failure != null) {
+                permits.release();
+                checkOpen();
+            }
+
+            queue.offer(ByteBuffer.wrap(record));
+            appended.increment();
+        } finally {
+            activeAppends.decrementAndGet();
+        }
+
+        if (parked && (flushIntervalNanos == 0L || getPending() >= batchThreshold)) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * 取队列的空位
+     */
+    private boolean acquire(long timeoutNanos) throws IOException {
+        try {
+            if (timeoutNanos < 0L) {
+                permits.acquire();
+                return true;
+            } else if (timeoutNanos == 0L) {
+                return permits.tryAcquire();
+            } else {
+                return permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("append interrupted");
+        }
+    }
+
+    /**
+     * 写线程，批量取出写入，按间隔刷盘
+     */
+    private void run() {
+        ByteBuffer[] batch = new ByteBuffer[MAX_GATHER];
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+
+        try {
+            while (true) {
+                int num = drain(batch);
+                if (num > 0) {
+                    write(batch, num);
+                    dirty = true;
+                }
+
+                if (dirty && fsyncIntervalNanos >= 0L && System.nanoTime() - lastForce >= fsyncIntervalNanos) {
+                    channel.force(false);
+                    lastForce = System.nanoTime();
+                    dirty = false;
+                }
+
+                if (num == MAX_GATHER) {
+                    continue;
+                }
+
+                if (closed && activeAppends.get() == 0 && queue.isEmpty()) {
+                    break;
+                }
+
+                boolean linger = flushIntervalNanos > 0L && writtenRecords >= flushTarget;
+                parked = true;
+                if (!closed && (linger || queue.isEmpty())) {
+                    LockSupport.parkNanos(this, linger ? flushIntervalNanos : IDLE_PARK_NANOS);
+                }
+                parked = false;
+            }
+
+            if (dirty) {
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            failure = ex;
+        } catch (Throwable ex) {
+            failure = new IOException("append writer failed, path: " + path, ex);
+        } finally {
+            if (failure != null) {
+                // 丢弃未写的记录，唤醒阻塞的生产者
+                permits.release(capacity);
+                queue.clear();
+            }
+
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                if (failure == null) {
+                    failure = ex;
+                }
+            }
+
+            synchronized (flushMonitor) {
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 取出一批记录
+     */
+    private int drain(ByteBuffer[] batch) {
+        int num = 0;
+        ByteBuffer record;
+        while (num < batch.length && (record = queue.poll()) != null) {
+            batch[num++] = record;
+        }
+        return num;
+    }
+
+    /**
+     * 聚集写，直到全部写完
+     */
+    private void write(ByteBuffer[] batch, int num) throws IOException {
+        long bytes = 0L;
+        for (int i = 0; i < num; i++) {
+            bytes += batch[i].remaining();
+        }
+
+        long remaining = bytes;
+        int offset = 0;
+        while (remaining > 0L) {
+            remaining -= channel.write(batch, offset, num - offset);
+            while (offset < num && !batch[offset].hasRemaining()) {
+                offset++;
+            }
+        }
+
+        for (int i = 0; i < num; i++) {
+            batch[i] = null;
+        }
+        permits.release(num);
+
+        writtenBytes += bytes;
+        writtenRecords += num;
+        batches++;
+
+        synchronized (flushMonitor) {
+            flushMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * 检查未关闭、未失败
+     */
+    private void checkOpen() throws IOException {
+        checkFailure();
+        if (closed) {
+            throw new IOException("append writer closed, path: " + path);
+        }
+    }
+
+    /**
+     * 检查未失败
+     */
+    private void checkFailure() throws IOException {
+        IOException ex = failure;
+        if (ex != null) {
+            throw new IOException("append writer failed, path: " + path, ex);
+        }
+    }
+
+    /**
+     * 队列中的记录数
+     *
+     * @return pending
+     */
+    public int getPending() {
+        return capacity - permits.availablePermits();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getWrittenRecords() {
+        return writtenRecords;
+    }
+
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+}
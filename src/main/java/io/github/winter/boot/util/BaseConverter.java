@@ -2,7 +2,8 @@ package io.github.winter.boot.util;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * 进制转换
@@ -66,7 +67,7 @@ public final class BaseConverter {
 
     /**
      * 10进制 to 32进制
-     * 线程不安全
+     * 线程安全
      *
      * @param num 数字（gt 0），if num le 0 return "";
      * @return 字符串
@@ -75,6 +76,16 @@ public final class BaseConverter {
         return BASE32.fromLong(num);
     }
 
+    /**
+     * 10进制 to 32进制，批量
+     *
+     * @param nums 数字列表，if num le 0 return "";
+     * @return 字符串列表
+     */
+    public static String[] convert10To32(long[] nums) {
+        return BASE32.fromLongs(nums);
+    }
+
     /**
      * 62进制 to 10进制
      *
@@ -87,7 +98,7 @@ public final class BaseConverter {
 
     /**
      * 10进制 to 62进制
-     * 线程不安全
+     * 线程安全
      *
      * @param num 数字（gt 0），if num le 0 return "";
      * @return 字符串
@@ -96,6 +107,16 @@ public final class BaseConverter {
         return BASE62.fromLong(num);
     }
 
+    /**
+     * 10进制 to 62进制，批量
+     *
+     * @param nums 数字列表，if num le 0 return "";
+     * @return 字符串列表
+     */
+    public static String[] convert10To62(long[] nums) {
+        return BASE62.fromLongs(nums);
+    }
+
     /**
      * 进制转换基类
      */
@@ -105,6 +126,16 @@ public final class BaseConverter {
          */
         public static final String ILLEGAL_CHAR = "illegal character %c in %s";
 
+        /**
+         * 批量转换，超过此数量时拆分到 ForkJoinPool 并行
+         */
+        public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+        /**
+         * long 转换后的最大长度（2进制）
+         */
+        private static final int MAX_LEN = Long.SIZE;
+
         /**
          * 字符数组
          */
@@ -120,6 +151,11 @@ public final class BaseConverter {
          */
         private final int alphanumericalCharacterLenMask;
 
+        /**
+         * 字符长度位数，字符长度是2的幂次方时，用移位代替除法，否则为 -1
+         */
+        private final int alphanumericalCharacterBits;
+
         /**
          * 字符 : 下标
          */
@@ -137,6 +173,8 @@ public final class BaseConverter {
             this.alphanumericalCharacters = alphanumerical.toCharArray();
             this.alphanumericalCharacterLen = this.alphanumericalCharacters.length;
             this.alphanumericalCharacterLenMask = this.alphanumericalCharacterLen - 1;
+            this.alphanumericalCharacterBits = (this.alphanumericalCharacterLen & this.alphanumericalCharacterLenMask) == 0
+                    ? Integer.numberOfTrailingZeros(this.alphanumericalCharacterLen) : -1;
 
             for (int i = 0; i < this.alphanumericalCharacterLen; i++) {
                 this.alphanumericalIndex.put(this.alphanumericalCharacters[i], i);
@@ -175,7 +213,7 @@ public final class BaseConverter {
 
         /**
          * 数字 to 字符串
-         * 线程不安全
+         * 线程安全
          *
          * @param num 数字（gt 0），if num le 0 return "";
          * @return 字符串
@@ -185,21 +223,126 @@ public final class BaseConverter {
                 return "";
             }
 
-            Stack<Character> stack = new Stack<>();
-            int i;
-            while (num > 0) {
-                i = getRemainder(num);
-                stack.add(alphanumericalCharacters[i]);
+            char[] buf = new char[MAX_LEN];
+            int start = encode(num, buf);
+            return new String(buf, start, MAX_LEN - start);
+        }
+
+        /**
+         * 数字 to 字符串，批量
+         * 超过 {@link #PARALLEL_THRESHOLD} 时并行
+         *
+         * @param nums 数字列表，if num le 0 return "";
+         * @return 字符串列表
+         */
+        public String[] fromLongs(long[] nums) {
+            AssertUtils.nonNull(nums, "nums");
+
+            String[] r = new String[nums.length];
+            if (nums.length > PARALLEL_THRESHOLD) {
+                ForkJoinPool.commonPool().invoke(new EncodeTask(this, nums, r, 0, nums.length));
+            } else {
+                fromLongs(nums, r, 0, nums.length);
+            }
+
+            return r;
+        }
 
-                num /= alphanumericalCharacterLen;
+        /**
+         * 数字 to 定长ASCII，批量
+         * 每个数字占 width 个字节，左补 {@link #getAlphanumericalCharacters()}[0]
+         * 超过 {@link #PARALLEL_THRESHOLD} 时并行
+         *
+         * @param nums  数字列表，if num le 0 填充 width 个补位字符
+         * @param dst   目标，长度 ge nums.length * width
+         * @param width 定长，足够容纳最大的数字
+         */
+        public void fromLongs(long[] nums, byte[] dst, int width) {
+            AssertUtils.nonNull(nums, "nums");
+            AssertUtils.nonNull(dst, "dst");
+            AssertUtils.isPositive(width, "width");
+            Assert.checkArgument((long) nums.length * width <= dst.length,
+                    String.format("dst length must not be less than %d", (long) nums.length * width));
+
+            if (nums.length > PARALLEL_THRESHOLD) {
+                ForkJoinPool.commonPool().invoke(new EncodeTask(this, nums, dst, width, 0, nums.length));
+            } else {
+                fromLongs(nums, dst, width, 0, nums.length);
             }
+        }
 
-            StringBuilder r = new StringBuilder();
-            while (!stack.isEmpty()) {
-                r.append(stack.pop());
+        /**
+         * 数字 to 字符串，区间 [from, to)
+         */
+        private void fromLongs(long[] nums, String[] dst, int from, int to) {
+            char[] buf = new char[MAX_LEN];
+            int start;
+            for (int i = from; i < to; i++) {
+                if (nums[i] > 0) {
+                    start = encode(nums[i], buf);
+                    dst[i] = new String(buf, start, MAX_LEN - start);
+                } else {
+                    dst[i] = "";
+                }
             }
+        }
 
-            return r.toString();
+        /**
+         * 数字 to 定长ASCII，区间 [from, to)
+         */
+        private void fromLongs(long[] nums, byte[] dst, int width, int from, int to) {
+            char[] buf = new char[MAX_LEN];
+            byte pad = (byte) alphanumericalCharacters[0];
+            int start, len, offset, padLen;
+            for (int i = from; i < to; i++) {
+                offset = i * width;
+                if (nums[i] > 0) {
+                    start = encode(nums[i], buf);
+                    len = MAX_LEN - start;
+                    if (len > width) {
+                        throw new IllegalArgumentException(String.format("width %d too small for %d", width, nums[i]));
+                    }
+                } else {
+                    start = MAX_LEN;
+                    len = 0;
+                }
+
+                padLen = width - len;
+                for (int j = 0; j < padLen; j++) {
+                    dst[offset + j] = pad;
+                }
+
+                for (int j = 0; j < len; j++) {
+                    dst[offset + padLen + j] = (byte) buf[start + j];
+                }
+            }
+        }
+
+        /**
+         * 数字 to 字符，从 buf 末尾往前写
+         * 字符长度是2的幂次方时，用移位和掩码
+         *
+         * @param num 数字（gt 0）
+         * @param buf 缓冲，长度 {@link #MAX_LEN}
+         * @return 起始下标
+         */
+        private int encode(long num, char[] buf) {
+            int pos = MAX_LEN;
+            if (alphanumericalCharacterBits > 0) {
+                int bits = alphanumericalCharacterBits;
+                int mask = alphanumericalCharacterLenMask;
+                while (num > 0) {
+                    buf[--pos] = alphanumericalCharacters[(int) (num & mask)];
+                    num >>>= bits;
+                }
+            } else {
+                while (num > 0) {
+                    buf[--pos] = alphanumericalCharacters[getRemainder(num)];
+                    num /= alphanumericalCharacterLen;
+                }
+            }
+
+            return pos;
         }
 
         /**
@@ -229,6 +372,10 @@ public final class BaseConverter {
             return alphanumericalCharacterLenMask;
         }
 
+        public int getAlphanumericalCharacterBits() {
+            return alphanumericalCharacterBits;
+        }
+
         public Map<Character, Integer> getAlphanumericalIndex() {
             return alphanumericalIndex;
         }
@@ -239,4 +386,78 @@ public final class BaseConverter {
 
     }
 
+    /**
+     * 批量转换，按区间拆分
+     */
+    private static final class EncodeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 转换器
+         */
+        private final transient AbstractConverter converter;
+
+        /**
+         * 数字列表
+         */
+        private final long[] nums;
+
+        /**
+         * 字符串目标，二选一
+         */
+        private final String[] strings;
+
+        /**
+         * 定长ASCII目标，二选一
+         */
+        private final byte[] bytes;
+
+        /**
+         * 定长
+         */
+        private final int width;
+
+        /**
+         * 区间 [from, to)
+         */
+        private final int from;
+        private final int to;
+
+        EncodeTask(AbstractConverter converter, long[] nums, String[] strings, int from, int to) {
+            this(converter, nums, strings, null, 0, from, to);
+        }
+
+        EncodeTask(AbstractConverter converter, long[] nums, byte[] bytes, int width, int from, int to) {
+            this(converter, nums, null, bytes, width, from, to);
+        }
+
+        private EncodeTask(AbstractConverter converter, long[] nums, String[] strings, byte[] bytes, int width, int from, int to) {
+            this.converter = converter;
+            this.nums = nums;
+            this.strings = strings;
+            this.bytes = bytes;
+            this.width = width;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= AbstractConverter.PARALLEL_THRESHOLD) {
+                if (strings != null) {
+                    converter.fromLongs(nums, strings, from, to);
+                } else {
+                    converter.fromLongs(nums, bytes, width, from, to);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new EncodeTask(converter, nums, strings, bytes, width, from, mid),
+                    new EncodeTask(converter, nums, strings, bytes, width, mid, to));
+        }
+
+    }
+
 }
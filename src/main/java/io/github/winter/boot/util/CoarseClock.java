@@ -0,0 +1,132 @@
+package io.github.winter.boot.util;
+
+/**
+ * 粗粒度时钟
+ * 后台守护线程定时刷新，读取时不调用 System.currentTimeMillis()
+ * 读取时启动，连续 {@link #IDLE_MILLIS} 无读取时停止，再次读取时重新启动
+ *
+ * @author changebooks@qq.com
+ */
+public final class CoarseClock {
+    /**
+     * 刷新间隔，毫秒
+     */
+    public static final long TICK_MILLIS = 10L;
+
+    /**
+     * 无读取多久后停止刷新，毫秒
+     */
+    public static final long IDLE_MILLIS = 1000L;
+
+    /**
+     * 刷新线程名
+     */
+    private static final String THREAD_NAME = "coarse-clock";
+
+    /**
+     * 当前时间戳，毫秒
+     */
+    private static volatile long currentTimeMillis = System.currentTimeMillis();
+
+    /**
+     * 刷新线程运行中？
+     */
+    private static volatile boolean running;
+
+    /**
+     * 上次刷新后有读取？只在 false 时写，读多的时候不争用缓存行
+     */
+    private static volatile boolean accessed;
+
+    private CoarseClock() {
+    }
+
+    /**
+     * 当前时间戳，单位：毫秒，误差 {@link #TICK_MILLIS}
+     *
+     * @return timestamp
+     */
+    public static long currentTimeMillis() {
+        if (!running) {
+            return start();
+        }
+
+        if (!accessed) {
+            accessed = true;
+        }
+        return currentTimeMillis;
+    }
+
+    /**
+     * 当前时间戳，单位：秒
+     *
+     * @return timestamp
+     */
+    public static int currentTimeSecond() {
+        return (int) (currentTimeMillis() / 1000L);
+    }
+
+    /**
+     * 刷新线程运行中？
+     *
+     * @return running ? true : false
+     */
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 启动刷新线程，返回精确的当前时间
+     */
+    private static synchronized long start() {
+        long now = System.currentTimeMillis();
+        currentTimeMillis = now;
+        accessed = true;
+
+        if (!running) {
+            running = true;
+            Thread thread = new Thread(CoarseClock::tick, THREAD_NAME);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        return now;
+    }
+
+    /**
+     * 刷新，空闲时退出
+     */
+    private static void tick() {
+        long idleMillis = 0L;
+        try {
+            while (true) {
+                Thread.sleep(TICK_MILLIS);
+                currentTimeMillis = System.currentTimeMillis();
+
+                if (accessed) {
+                    accessed = false;
+                    idleMillis = 0L;
+                } else if ((idleMillis += TICK_MILLIS) >= IDLE_MILLIS && stopIfIdle()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            synchronized (CoarseClock.class) {
+                running = false;
+            }
+        }
+    }
+
+    /**
+     * 与 start 互斥，期间没有读取时停止
+     */
+    private static synchronized boolean stopIfIdle() {
+        if (accessed) {
+            return false;
+        }
+
+        running = false;
+        return true;
+    }
+
+}
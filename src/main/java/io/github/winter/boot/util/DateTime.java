@@ -1,11 +1,29 @@
 package io.github.winter.boot.util;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.text.ParsePosition;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 日期时间
+ * 格式化器按 pattern 缓存，线程安全
+ * pattern 按 {@link java.text.SimpleDateFormat} 的字母书写，由 {@link DateTimeFormatter} 执行：
+ * 解析宽松，数字不限位数，字段溢出时顺延（eg: 2022-02-30 即 2022-03-02）
+ * 缺月、日取 1，缺时、分、秒取 0，只有 12 小时制时取上午，缺年时解析失败
+ * "u" 是星期几（1 = 周一），"yy" 以 80 年前为基准，"S" 是毫秒数，同 SimpleDateFormat；其它字母按 {@link DateTimeFormatter} 的含义
  *
  * @author changebooks@qq.com
  */
@@ -18,6 +36,55 @@ public final class DateTime {
     public static final String PATTERN_SLASH_WITHOUT_SECOND = "yyyy/MM/dd HH:mm";
     public static final String PATTERN_SLASH_WITHOUT_TIME = "yyyy/MM/dd";
 
+    /**
+     * 最多缓存的格式化器数量，超过后不再缓存，每次新建
+     */
+    public static final int MAX_FORMATTER_CACHE_SIZE = 256;
+
+    /**
+     * 快速解析，不匹配
+     */
+    private static final long NO_MATCH = Long.MIN_VALUE;
+
+    /**
+     * 0000-01-01 到 1970-01-01 的天数
+     */
+    private static final long DAYS_0000_TO_1970 = 719528L;
+
+    /**
+     * 每天秒数
+     */
+    private static final long SECONDS_PER_DAY = 86400L;
+
+    /**
+     * 每天毫秒数
+     */
+    private static final long MILLIS_PER_DAY = SECONDS_PER_DAY * 1000L;
+
+    /**
+     * 平年每月天数
+     */
+    private static final int[] DAYS_OF_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    /**
+     * pattern : 格式化器
+     */
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    /**
+     * pattern : 当前秒的格式化结果
+     */
+    private static final Map<String, SecondText> NOW_TEXTS = new ConcurrentHashMap<>();
+
+    static {
+        getFormatter(PATTERN);
+        getFormatter(PATTERN_WITHOUT_SECOND);
+        getFormatter(PATTERN_WITHOUT_TIME);
+        getFormatter(PATTERN_SLASH);
+        getFormatter(PATTERN_SLASH_WITHOUT_SECOND);
+        getFormatter(PATTERN_SLASH_WITHOUT_TIME);
+    }
+
     private DateTime() {
     }
 
@@ -30,13 +97,55 @@ public final class DateTime {
         return (int) (System.currentTimeMillis() / 1000L);
     }
 
+    /**
+     * 当前时间戳，单位：秒，读粗粒度时钟
+     *
+     * @return timestamp
+     */
+    public static int coarseTimeSecond() {
+        return CoarseClock.currentTimeSecond();
+    }
+
     /**
      * 当前时间，yyyy-MM-dd HH:mm:ss
+     * 每秒格式化一次
      *
      * @return eg: "2022-02-22 22:22:22"
      */
     public static String now() {
-        return format(new Date());
+        return now(PATTERN);
+    }
+
+    /**
+     * 当前时间
+     * 每个 pattern 每秒格式化一次，pattern 精度不能小于秒
+     *
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @return eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     */
+    public static String now(String pattern) {
+        return now(System.currentTimeMillis(), pattern);
+    }
+
+    /**
+     * 当前时间，yyyy-MM-dd HH:mm:ss，读粗粒度时钟
+     * 每秒格式化一次
+     *
+     * @return eg: "2022-02-22 22:22:22"
+     */
+    public static String coarseNow() {
+        return coarseNow(PATTERN);
+    }
+
+    /**
+     * 当前时间，读粗粒度时钟
+     * 每个 pattern 每秒格式化一次，pattern 精度不能小于秒
+     *
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @return eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     */
+    public static String coarseNow(String pattern) {
+        return now(CoarseClock.currentTimeMillis(), pattern);
     }
 
     /**
@@ -61,19 +170,74 @@ public final class DateTime {
     }
 
     /**
-     * Date to String
+     * Date to String，系统默认时区
      *
      * @param date    the {@link Date} instance
      * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
      * @return eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
      */
     public static String format(Date date, String pattern) {
-        SimpleDateFormat formatter = new SimpleDateFormat(pattern);
-        return formatter.format(date);
+        return format(date, pattern, ZoneId.systemDefault());
     }
 
     /**
-     * String to Date
+     * Date to String
+     *
+     * @param date    the {@link Date} instance
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @param zone    时区
+     * @return eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     */
+    public static String format(Date date, String pattern, ZoneId zone) {
+        AssertUtils.nonNull(date, "date");
+
+        return format(date.getTime(), pattern, zone);
+    }
+
+    /**
+     * Instant to String
+     *
+     * @param instant the {@link Instant} instance
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @param zone    时区
+     * @return eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     */
+    public static String format(Instant instant, String pattern, ZoneId zone) {
+        AssertUtils.nonNull(instant, "instant");
+        AssertUtils.nonNull(zone, "zone");
+
+        return getFormatter(pattern).format(instant.atZone(zone));
+    }
+
+    /**
+     * LocalDateTime to String
+     *
+     * @param dateTime the {@link LocalDateTime} instance
+     * @param pattern  eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @return eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     */
+    public static String format(LocalDateTime dateTime, String pattern) {
+        AssertUtils.nonNull(dateTime, "dateTime");
+
+        return getFormatter(pattern).format(dateTime);
+    }
+
+    /**
+     * ZonedDateTime to String
+     *
+     * @param dateTime the {@link ZonedDateTime} instance
+     * @param pattern  eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @return eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     */
+    public static String format(ZonedDateTime dateTime, String pattern) {
+        AssertUtils.nonNull(dateTime, "dateTime");
+
+        return getFormatter(pattern).format(dateTime);
+    }
+
+    /**
+     * String to Date，系统默认时区
+     * 夏令时重叠取较晚的偏移，同 SimpleDateFormat
      *
      * @param source  eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
      * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
@@ -81,8 +245,838 @@ public final class DateTime {
      * @throws ParseException 解析失败
      */
     public static Date parse(String source, String pattern) throws ParseException {
-        SimpleDateFormat formatter = new SimpleDateFormat(pattern);
-        return formatter.parse(source);
+        return parse(source, pattern, ZoneId.systemDefault());
+    }
+
+    /**
+     * String to Date
+     * 夏令时重叠取较晚的偏移，同 SimpleDateFormat，eg: 纽约 "2022-11-06 01:30:00" 取 EST
+     *
+     * @param source  eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @param zone    时区，source 不含时区时使用
+     * @return a {@link Date} instance
+     * @throws ParseException 解析失败
+     */
+    public static Date parse(String source, String pattern, ZoneId zone) throws ParseException {
+        AssertUtils.nonNull(source, "source");
+        AssertUtils.nonNull(zone, "zone");
+
+        long local = localSeconds(source, 0, source.length(), pattern);
+        if (local != NO_MATCH) {
+            return new Date(ZoneOffsets.of(zone).toEpochSecond(local, true) * 1000L);
+        }
+
+        return Date.from(parseZonedDateTime(source, pattern, zone).withLaterOffsetAtOverlap().toInstant());
+    }
+
+    /**
+     * String to Instant
+     * 夏令时重叠取较早的偏移，同 {@link ZonedDateTime}
+     *
+     * @param source  eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @param zone    时区，source 不含时区时使用
+     * @return a {@link Instant} instance
+     * @throws ParseException 解析失败
+     */
+    public static Instant parseInstant(String source, String pattern, ZoneId zone) throws ParseException {
+        return parseZonedDateTime(source, pattern, zone).toInstant();
+    }
+
+    /**
+     * String to LocalDateTime
+     * source 不含时间时，取 00:00:00；不含月、日时，取 1
+     *
+     * @param source  eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @return a {@link LocalDateTime} instance
+     * @throws ParseException 解析失败
+     */
+    public static LocalDateTime parseLocalDateTime(String source, String pattern) throws ParseException {
+        return toLocalDateTime(doParse(source, pattern), source);
+    }
+
+    /**
+     * 时间戳 to String
+     * PATTERN、PATTERN_SLASH 系列直接写数字，其它 pattern 用格式化器
+     *
+     * @param epochMillis 时间戳，单位：毫秒
+     * @param pattern     eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @param zone        时区
+     * @return eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     */
+    public static String format(long epochMillis, String pattern, ZoneId zone) {
+        AssertUtils.nonNull(zone, "zone");
+
+        int len = fastLength(pattern);
+        if (len > 0) {
+            byte[] buf = new byte[len];
+            if (formatFast(epochMillis, pattern, len, zone, buf, 0)) {
+                return new String(buf, StandardCharsets.ISO_8859_1);
+            }
+        }
+
+        return format(Instant.ofEpochMilli(epochMillis), pattern, zone);
+    }
+
+    /**
+     * 时间戳 to 字节（UTF-8）
+     * PATTERN、PATTERN_SLASH 系列直接写数字，其它 pattern 用格式化器
+     *
+     * @param epochMillis 时间戳，单位：毫秒
+     * @param pattern     eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @param zone        时区
+     * @param dst         目标
+     * @param offset      目标起始下标
+     * @return 写入的字节数
+     */
+    public static int format(long epochMillis, String pattern, ZoneId zone, byte[] dst, int offset) {
+        AssertUtils.nonNull(zone, "zone");
+        AssertUtils.nonNull(dst, "dst");
+
+        int len = fastLength(pattern);
+        if (len > 0) {
+            Assert.checkArgument(offset >= 0 && offset + len <= dst.length, "dst too small");
+            if (formatFast(epochMillis, pattern, len, zone, dst, offset)) {
+                return len;
+            }
+        }
+
+        byte[] formatted = format(Instant.ofEpochMilli(epochMillis), pattern, zone).getBytes(StandardCharsets.UTF_8);
+        Assert.checkArgument(offset >= 0 && offset + formatted.length <= dst.length, "dst too small");
+        System.arraycopy(formatted, 0, dst, offset, formatted.length);
+        return formatted.length;
+    }
+
+    /**
+     * String to 时间戳，单位：毫秒
+     * PATTERN、PATTERN_SLASH 系列直接解析数字，不匹配时用格式化器
+     *
+     * @param source  eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @param zone    时区，source 不含时区时使用
+     * @return 时间戳，单位：毫秒
+     * @throws ParseException 解析失败
+     */
+    public static long parseMillis(CharSequence source, String pattern, ZoneId zone) throws ParseException {
+        AssertUtils.nonNull(source, "source");
+        AssertUtils.nonNull(zone, "zone");
+
+        long local = localSeconds(source, 0, source.length(), pattern);
+        if (local != NO_MATCH) {
+            return ZoneOffsets.of(zone).toEpochSecond(local) * 1000L;
+        }
+
+        return parseInstant(source.toString(), pattern, zone).toEpochMilli();
+    }
+
+    /**
+     * String to 时间戳，单位：秒
+     * PATTERN、PATTERN_SLASH 系列直接解析数字，不匹配时用格式化器
+     *
+     * @param source  eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @param zone    时区，source 不含时区时使用
+     * @return 时间戳，单位：秒
+     * @throws ParseException 解析失败
+     */
+    public static long parseSeconds(CharSequence source, String pattern, ZoneId zone) throws ParseException {
+        AssertUtils.nonNull(source, "source");
+        AssertUtils.nonNull(zone, "zone");
+
+        long local = localSeconds(source, 0, source.length(), pattern);
+        if (local != NO_MATCH) {
+            return ZoneOffsets.of(zone).toEpochSecond(local);
+        }
+
+        return parseInstant(source.toString(), pattern, zone).getEpochSecond();
+    }
+
+    /**
+     * ASCII 字节 to 时间戳，单位：毫秒
+     * PATTERN、PATTERN_SLASH 系列直接解析数字，不匹配时用格式化器
+     *
+     * @param source  eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     * @param offset  起始下标
+     * @param length  长度
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @param zone    时区，source 不含时区时使用
+     * @return 时间戳，单位：毫秒
+     * @throws ParseException 解析失败
+     */
+    public static long parseMillis(byte[] source, int offset, int length, String pattern, ZoneId zone) throws ParseException {
+        AssertUtils.nonNull(source, "source");
+        AssertUtils.nonNull(zone, "zone");
+        Assert.checkArgument(offset >= 0 && length >= 0 && offset + length <= source.length, "offset or length out of bounds");
+
+        long local = localSeconds(source, offset, length, pattern);
+        if (local != NO_MATCH) {
+            return ZoneOffsets.of(zone).toEpochSecond(local) * 1000L;
+        }
+
+        String s = new String(source, offset, length, StandardCharsets.UTF_8);
+        return parseInstant(s, pattern, zone).toEpochMilli();
+    }
+
+    /**
+     * ASCII 字节 to 时间戳，单位：秒
+     * PATTERN、PATTERN_SLASH 系列直接解析数字，不匹配时用格式化器
+     *
+     * @param source  eg: "2022-02-22 22:22:22", "2022/02/22 22:22", ...
+     * @param offset  起始下标
+     * @param length  长度
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @param zone    时区，source 不含时区时使用
+     * @return 时间戳，单位：秒
+     * @throws ParseException 解析失败
+     */
+    public static long parseSeconds(byte[] source, int offset, int length, String pattern, ZoneId zone) throws ParseException {
+        AssertUtils.nonNull(source, "source");
+        AssertUtils.nonNull(zone, "zone");
+        Assert.checkArgument(offset >= 0 && length >= 0 && offset + length <= source.length, "offset or length out of bounds");
+
+        long local = localSeconds(source, offset, length, pattern);
+        if (local != NO_MATCH) {
+            return ZoneOffsets.of(zone).toEpochSecond(local);
+        }
+
+        String s = new String(source, offset, length, StandardCharsets.UTF_8);
+        return parseInstant(s, pattern, zone).getEpochSecond();
+    }
+
+    /**
+     * 向下取整
+     * 秒、分、时按本地时间取整，天取当天零点，周取周一零点
+     *
+     * @param epochMillis 时间戳，单位：毫秒
+     * @param unit        SECONDS、MINUTES、HOURS、DAYS、WEEKS
+     * @param zone        时区
+     * @return 时间戳，单位：毫秒
+     */
+    public static long floor(long epochMillis, ChronoUnit unit, ZoneId zone) {
+        return floor(epochMillis, unitMillis(unit), ZoneOffsets.of(zone));
+    }
+
+    /**
+     * 向下取整，批量
+     * 秒、分、时按本地时间取整，天取当天零点，周取周一零点
+     *
+     * @param src  时间戳列表，单位：毫秒
+     * @param dst  结果列表，长度 ge src.length，可以是 src
+     * @param unit SECONDS、MINUTES、HOURS、DAYS、WEEKS
+     * @param zone 时区
+     */
+    public static void floor(long[] src, long[] dst, ChronoUnit unit, ZoneId zone) {
+        AssertUtils.nonNull(src, "src");
+        AssertUtils.nonNull(dst, "dst");
+        Assert.checkArgument(dst.length >= src.length, "dst length must not be less than src length");
+
+        long unitMillis = unitMillis(unit);
+        ZoneOffsets offsets = ZoneOffsets.of(zone);
+        for (int i = 0; i < src.length; i++) {
+            dst[i] = floor(src[i], unitMillis, offsets);
+        }
+    }
+
+    /**
+     * 向上取整，已对齐时返回原值
+     *
+     * @param epochMillis 时间戳，单位：毫秒
+     * @param unit        SECONDS、MINUTES、HOURS、DAYS、WEEKS
+     * @param zone        时区
+     * @return 时间戳，单位：毫秒
+     */
+    public static long ceil(long epochMillis, ChronoUnit unit, ZoneId zone) {
+        long unitMillis = unitMillis(unit);
+        ZoneOffsets offsets = ZoneOffsets.of(zone);
+
+        long r = floor(epochMillis, unitMillis, offsets);
+        if (r == epochMillis) {
+            return r;
+        }
+
+        if (unitMillis < MILLIS_PER_DAY) {
+            return r + unitMillis;
+        }
+
+        long epochDay = Math.floorDiv(offsets.toLocalSeconds(Math.floorDiv(r, 1000L)), SECONDS_PER_DAY);
+        return startOfEpochDay(epochDay + unitMillis / MILLIS_PER_DAY, offsets);
+    }
+
+    /**
+     * 当天零点
+     *
+     * @param epochMillis 时间戳，单位：毫秒
+     * @param zone        时区
+     * @return 时间戳，单位：毫秒
+     */
+    public static long startOfDay(long epochMillis, ZoneId zone) {
+        return floor(epochMillis, MILLIS_PER_DAY, ZoneOffsets.of(zone));
+    }
+
+    /**
+     * 次日零点，即当天的结束（不含）
+     *
+     * @param epochMillis 时间戳，单位：毫秒
+     * @param zone        时区
+     * @return 时间戳，单位：毫秒
+     */
+    public static long startOfNextDay(long epochMillis, ZoneId zone) {
+        ZoneOffsets offsets = ZoneOffsets.of(zone);
+        return startOfEpochDay(localEpochDay(epochMillis, offsets) + 1L, offsets);
+    }
+
+    /**
+     * ISO 周数，周一为一周的开始，1 ~ 53
+     *
+     * @param epochMillis 时间戳，单位：毫秒
+     * @param zone        时区
+     * @return 周数
+     */
+    public static int isoWeekOfYear(long epochMillis, ZoneId zone) {
+        long epochDay = localEpochDay(epochMillis, ZoneOffsets.of(zone));
+        long year = civil(epochDay) >> 9;
+
+        int week = isoWeek(epochDay, year);
+        if (week < 1) {
+            return isoWeeksInYear(year - 1L);
+        }
+
+        return week > isoWeeksInYear(year) ? 1 : week;
+    }
+
+    /**
+     * ISO 周所属的年，跨年的周属于周四所在的年
+     *
+     * @param epochMillis 时间戳，单位：毫秒
+     * @param zone        时区
+     * @return 年
+     */
+    public static int isoWeekBasedYear(long epochMillis, ZoneId zone) {
+        long epochDay = localEpochDay(epochMillis, ZoneOffsets.of(zone));
+        long year = civil(epochDay) >> 9;
+
+        int week = isoWeek(epochDay, year);
+        if (week < 1) {
+            return (int) (year - 1L);
+        }
+
+        return (int) (week > isoWeeksInYear(year) ? year + 1L : year);
+    }
+
+    /**
+     * 格式化器，按 pattern 缓存
+     *
+     * @param pattern eg: "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss", ...
+     * @return the {@link DateTimeFormatter} instance
+     */
+    public static DateTimeFormatter getFormatter(String pattern) {
+        AssertUtils.nonEmpty(pattern, "pattern");
+
+        DateTimeFormatter formatter = FORMATTERS.get(pattern);
+        if (formatter != null) {
+            return formatter;
+        }
+
+        formatter = newFormatter(pattern);
+        if (FORMATTERS.size() < MAX_FORMATTER_CACHE_SIZE) {
+            DateTimeFormatter previous = FORMATTERS.putIfAbsent(pattern, formatter);
+            if (previous != null) {
+                return previous;
+            }
+        }
+
+        return formatter;
+    }
+
+    /**
+     * 新建格式化器
+     * 逐段添加 pattern，含义与 SimpleDateFormat 不同的字母替换为等价的字段：
+     * "u" 星期几的数字；"yy" 两位年份，以 80 年前为基准；"S" 毫秒数，不是秒的小数
+     * 按 pattern 含有的字母补缺省值，避免与解析出的字段冲突
+     */
+    private static DateTimeFormatter newFormatter(String pattern) {
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder().parseLenient();
+        StringBuilder letters = new StringBuilder();
+
+        int len = pattern.length();
+        int start = 0;
+        boolean quoted = false;
+        for (int i = 0; i < len; i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z'))) {
+                int end = i + 1;
+                while (end < len && pattern.charAt(end) == c) {
+                    end++;
+                }
+
+                int count = end - i;
+                if (c == 'u' || c == 'S' || (c == 'y' && count == 2)) {
+                    if (i > start) {
+                        builder.appendPattern(pattern.substring(start, i));
+                    }
+                    appendLegacyField(builder, c, count);
+                    start = end;
+                }
+
+                letters.append(c == 'u' ? 'E' : c);
+                i = end - 1;
+            }
+        }
+
+        if (start < len) {
+            builder.appendPattern(pattern.substring(start));
+        }
+
+        if (!containsAny(letters, "MLDwWYQq")) {
+            builder.parseDefaulting(ChronoField.MONTH_OF_YEAR, 1L);
+        }
+        if (!containsAny(letters, "dDwWFEecYQqg")) {
+            builder.parseDefaulting(ChronoField.DAY_OF_MONTH, 1L);
+        }
+
+        if (!containsAny(letters, "AN")) {
+            if (!containsAny(letters, "HkKh")) {
+                builder.parseDefaulting(ChronoField.HOUR_OF_DAY, 0L);
+            } else if (containsAny(letters, "Kh") && !containsAny(letters, "aB")) {
+                builder.parseDefaulting(ChronoField.AMPM_OF_DAY, 0L);
+            }
+            if (!containsAny(letters, "m")) {
+                builder.parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0L);
+            }
+            if (!containsAny(letters, "s")) {
+                builder.parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0L);
+            }
+        }
+
+        return builder.toFormatter().withResolverStyle(ResolverStyle.LENIENT);
+    }
+
+    /**
+     * 按 SimpleDateFormat 的含义添加字段
+     * "yy" 恰好两位数字时以 80 年前为基准，其它位数按字面值；"S" 格式化时补零到 count 位
+     */
+    private static void appendLegacyField(DateTimeFormatterBuilder builder, char letter, int count) {
+        switch (letter) {
+            case 'u':
+                builder.appendValue(ChronoField.DAY_OF_WEEK, count);
+                break;
+            case 'y':
+                builder.appendValueReduced(ChronoField.YEAR, 2, 2, LocalDate.now().minusYears(80L));
+                break;
+            case 'S':
+                builder.appendValue(ChronoField.MILLI_OF_SECOND, count, Math.max(count, 3), SignStyle.NOT_NEGATIVE);
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("unsupported pattern letter: %s", letter));
+        }
+    }
+
+    /**
+     * 含有 chars 中任一字符？
+     */
+    private static boolean containsAny(CharSequence s, String chars) {
+        for (int i = 0; i < s.length(); i++) {
+            if (chars.indexOf(s.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析，允许 source 尾部有多余字符
+     */
+    private static TemporalAccessor doParse(String source, String pattern) throws ParseException {
+        AssertUtils.nonNull(source, "source");
+
+        try {
+            return getFormatter(pattern).parse(source, new ParsePosition(0));
+        } catch (DateTimeParseException ex) {
+            ParseException r = new ParseException(ex.getMessage(), ex.getErrorIndex());
+            r.initCause(ex);
+            throw r;
+        }
+    }
+
+    /**
+     * 解析，source 不含时区时使用 zone，夏令时重叠取较早的偏移
+     */
+    private static ZonedDateTime parseZonedDateTime(String source, String pattern, ZoneId zone) throws ParseException {
+        AssertUtils.nonNull(zone, "zone");
+
+        TemporalAccessor parsed = doParse(source, pattern);
+        ZoneId parsedZone = parsed.query(TemporalQueries.zone());
+        return toLocalDateTime(parsed, source).atZone(parsedZone != null ? parsedZone : zone);
+    }
+
+    /**
+     * 日期时间，缺省值已由格式化器补齐，仍无法确定时解析失败
+     */
+    private static LocalDateTime toLocalDateTime(TemporalAccessor parsed, String source) throws ParseException {
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        if (date == null) {
+            throw new ParseException("unable to resolve date from: " + source, 0);
+        }
+
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        if (time == null) {
+            throw new ParseException("unable to resolve time from: " + source, 0);
+        }
+
+        return LocalDateTime.of(date, time);
+    }
+
+    /**
+     * 格式化，同一秒复用上次结果
+     * 秒数变化时取默认时区、重新格式化，默认时区的变化在下一秒生效；并发时可能重复格式化，结果相同
+     */
+    private static String now(long epochMillis, String pattern) {
+        AssertUtils.nonEmpty(pattern, "pattern");
+
+        long second = Math.floorDiv(epochMillis, 1000L);
+
+        SecondText cached = NOW_TEXTS.get(pattern);
+        if (cached != null && cached.second == second) {
+            return cached.text;
+        }
+
+        String text = format(second * 1000L, pattern, ZoneId.systemDefault());
+        if (cached != null || NOW_TEXTS.size() < MAX_FORMATTER_CACHE_SIZE) {
+            NOW_TEXTS.put(pattern, new SecondText(second, text));
+        }
+
+        return text;
+    }
+
+    /**
+     * 取整单位，毫秒
+     */
+    private static long unitMillis(ChronoUnit unit) {
+        AssertUtils.nonNull(unit, "unit");
+
+        switch (unit) {
+            case SECONDS:
+            case MINUTES:
+            case HOURS:
+            case DAYS:
+            case WEEKS:
+                return unit.getDuration().toMillis();
+            default:
+                throw new IllegalArgumentException(String.format("unsupported unit: %s", unit));
+        }
+    }
+
+    /**
+     * 向下取整
+     * 小于一天，按本地时间减去余数；天、周，取本地零点
+     */
+    private static long floor(long epochMillis, long unitMillis, ZoneOffsets offsets) {
+        long offsetMillis = offsets.offsetSeconds(Math.floorDiv(epochMillis, 1000L)) * 1000L;
+        if (unitMillis < MILLIS_PER_DAY) {
+            return epochMillis - Math.floorMod(epochMillis + offsetMillis, unitMillis);
+        }
+
+        long epochDay = Math.floorDiv(epochMillis + offsetMillis, MILLIS_PER_DAY);
+        if (unitMillis > MILLIS_PER_DAY) {
+            epochDay -= dayOfWeek(epochDay) - 1;
+        }
+
+        return startOfEpochDay(epochDay, offsets);
+    }
+
+    /**
+     * 本地日期，1970-01-01 起的天数
+     */
+    private static long localEpochDay(long epochMillis, ZoneOffsets offsets) {
+        return Math.floorDiv(offsets.toLocalSeconds(Math.floorDiv(epochMillis, 1000L)), SECONDS_PER_DAY);
+    }
+
+    /**
+     * 本地日期的零点，零点不存在时顺延
+     */
+    private static long startOfEpochDay(long epochDay, ZoneOffsets offsets) {
+        return offsets.toEpochSecond(epochDay * SECONDS_PER_DAY) * 1000L;
+    }
+
+    /**
+     * 星期，1 ~ 7，周一是 1
+     */
+    private static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3L, 7L) + 1;
+    }
+
+    /**
+     * ISO 周数，未修正，可能是 0 或 53
+     */
+    private static int isoWeek(long epochDay, long year) {
+        int dayOfYear = (int) (epochDay - toEpochDay(year, 1, 1)) + 1;
+        return (dayOfYear - dayOfWeek(epochDay) + 10) / 7;
+    }
+
+    /**
+     * ISO 年的周数，52 or 53
+     */
+    private static int isoWeeksInYear(long year) {
+        int firstDayOfWeek = dayOfWeek(toEpochDay(year, 1, 1));
+        return firstDayOfWeek == 4 || (firstDayOfWeek == 3 && isLeapYear(year)) ? 53 : 52;
+    }
+
+    /**
+     * 快速路径的长度，非快速路径返回 -1
+     */
+    private static int fastLength(String pattern) {
+        if (pattern == null) {
+            return -1;
+        }
+
+        switch (pattern) {
+            case PATTERN:
+            case PATTERN_SLASH:
+                return 19;
+            case PATTERN_WITHOUT_SECOND:
+            case PATTERN_SLASH_WITHOUT_SECOND:
+                return 16;
+            case PATTERN_WITHOUT_TIME:
+            case PATTERN_SLASH_WITHOUT_TIME:
+                return 10;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * 快速解析，本地时间的秒数，不匹配返回 {@link #NO_MATCH}
+     */
+    private static long localSeconds(CharSequence s, int off, int len, String pattern) {
+        int expected = fastLength(pattern);
+        if (expected < 0 || len != expected) {
+            return NO_MATCH;
+        }
+
+        char sep = pattern.charAt(4);
+        if (s.charAt(off + 4) != sep || s.charAt(off + 7) != sep) {
+            return NO_MATCH;
+        }
+
+        int hour = 0, minute = 0, second = 0;
+        if (len > 10) {
+            if (s.charAt(off + 10) != ' ' || s.charAt(off + 13) != ':') {
+                return NO_MATCH;
+            }
+
+            hour = digits(s, off + 11, 2);
+            minute = digits(s, off + 14, 2);
+            if (len > 16) {
+                if (s.charAt(off + 16) != ':') {
+                    return NO_MATCH;
+                }
+
+                second = digits(s, off + 17, 2);
+            }
+        }
+
+        return localSeconds(digits(s, off, 4), digits(s, off + 5, 2), digits(s, off + 8, 2), hour, minute, second);
+    }
+
+    /**
+     * 快速解析，本地时间的秒数，不匹配返回 {@link #NO_MATCH}
+     */
+    private static long localSeconds(byte[] s, int off, int len, String pattern) {
+        int expected = fastLength(pattern);
+        if (expected < 0 || len != expected) {
+            return NO_MATCH;
+        }
+
+        byte sep = (byte) pattern.charAt(4);
+        if (s[off + 4] != sep || s[off + 7] != sep) {
+            return NO_MATCH;
+        }
+
+        int hour = 0, minute = 0, second = 0;
+        if (len > 10) {
+            if (s[off + 10] != ' ' || s[off + 13] != ':') {
+                return NO_MATCH;
+            }
+
+            hour = digits(s, off + 11, 2);
+            minute = digits(s, off + 14, 2);
+            if (len > 16) {
+                if (s[off + 16] != ':') {
+                    return NO_MATCH;
+                }
+
+                second = digits(s, off + 17, 2);
+            }
+        }
+
+        return localSeconds(digits(s, off, 4), digits(s, off + 5, 2), digits(s, off + 8, 2), hour, minute, second);
+    }
+
+    /**
+     * 十进制数字，含非数字返回 -1
+     */
+    private static int digits(CharSequence s, int off, int n) {
+        int r = 0, d;
+        for (int i = 0; i < n; i++) {
+            d = s.charAt(off + i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            r = r * 10 + d;
+        }
+        return r;
+    }
+
+    /**
+     * 十进制数字，含非数字返回 -1
+     */
+    private static int digits(byte[] s, int off, int n) {
+        int r = 0, d;
+        for (int i = 0; i < n; i++) {
+            d = s[off + i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            r = r * 10 + d;
+        }
+        return r;
+    }
+
+    /**
+     * 本地时间的秒数，非法日期时间返回 {@link #NO_MATCH}，交给格式化器处理
+     * "yyyy" 是纪元年，0000 不是公元年，交给格式化器处理
+     */
+    private static long localSeconds(int year, int month, int day, int hour, int minute, int second) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) ||
+                hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NO_MATCH;
+        }
+
+        return toEpochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+    }
+
+    /**
+     * 快速格式化，年份超出 0001 ~ 9999 返回 false
+     * "yyyy" 是纪元年，公元前的年份交给格式化器处理，eg: 0 年即公元前 1 年，输出 0001
+     */
+    private static boolean formatFast(long epochMillis, String pattern, int len, ZoneId zone, byte[] dst, int off) {
+        long local = ZoneOffsets.of(zone).toLocalSeconds(Math.floorDiv(epochMillis, 1000L));
+        long epochDay = Math.floorDiv(local, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(local, SECONDS_PER_DAY);
+
+        long date = civil(epochDay);
+        long year = date >> 9;
+        int month = (int) (date >> 5) & 0xF;
+        int day = (int) date & 0x1F;
+        if (year < 1L || year > 9999L) {
+            return false;
+        }
+
+        byte sep = (byte) pattern.charAt(4);
+        writeDigits(dst, off, (int) year, 4);
+        dst[off + 4] = sep;
+        writeDigits(dst, off + 5, month, 2);
+        dst[off + 7] = sep;
+        writeDigits(dst, off + 8, day, 2);
+        if (len > 10) {
+            dst[off + 10] = ' ';
+            writeDigits(dst, off + 11, secondOfDay / 3600, 2);
+            dst[off + 13] = ':';
+            writeDigits(dst, off + 14, secondOfDay / 60 % 60, 2);
+            if (len > 16) {
+                dst[off + 16] = ':';
+                writeDigits(dst, off + 17, secondOfDay % 60, 2);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 定长十进制数字，左补0
+     */
+    private static void writeDigits(byte[] dst, int off, int value, int n) {
+        for (int i = off + n - 1; i >= off; i--) {
+            dst[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * 1970-01-01 起的天数，同 {@link LocalDate#toEpochDay()}
+     */
+    private static long toEpochDay(long year, int month, int day) {
+        long total = 365L * year;
+        if (year >= 0L) {
+            total += (year + 3L) / 4L - (year + 99L) / 100L + (year + 399L) / 400L;
+        } else {
+            total -= year / -4L - year / -100L + year / -400L;
+        }
+        total += (367L * month - 362L) / 12L;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * 1970-01-01 起的天数 to 年月日
+     * 返回 year &lt;&lt; 9 | month &lt;&lt; 5 | day
+     */
+    private static long civil(long epochDay) {
+        long z = epochDay + 719468L;
+        long era = Math.floorDiv(z, 146097L);
+        long doe = z - era * 146097L;
+        long yoe = (doe - doe / 1460L + doe / 36524L - doe / 146096L) / 365L;
+        long doy = doe - (365L * yoe + yoe / 4L - yoe / 100L);
+        long mp = (5L * doy + 2L) / 153L;
+        long day = doy - (153L * mp + 2L) / 5L + 1L;
+        long month = mp < 10L ? mp + 3L : mp - 9L;
+        long year = yoe + era * 400L + (month <= 2L ? 1L : 0L);
+        return year << 9 | month << 5 | day;
+    }
+
+    /**
+     * 月的天数
+     */
+    private static int lengthOfMonth(long year, int month) {
+        return month == 2 && isLeapYear(year) ? 29 : DAYS_OF_MONTH[month - 1];
+    }
+
+    /**
+     * 闰年？
+     */
+    private static boolean isLeapYear(long year) {
+        return (year & 3L) == 0L && (year % 100L != 0L || year % 400L == 0L);
+    }
+
+    /**
+     * 某秒的格式化结果，不可变
+     */
+    private static final class SecondText {
+        /**
+         * 时间戳，单位：秒
+         */
+        private final long second;
+
+        /**
+         * 格式化结果
+         */
+        private final String text;
+
+        SecondText(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+
     }
 
 }
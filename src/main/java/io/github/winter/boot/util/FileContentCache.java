@@ -0,0 +1,352 @@
+package io.github.winter.boot.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文件内容缓存，eg: 模板、配置
+ * 按 mtime、size、fileKey 校验，同一文件每个间隔最多校验一次，间隔内直接返回缓存
+ * 校验和读取在 {@link WeightedLru#compute} 内执行，同一文件同时只有一个线程读，其它线程等待结果
+ * 按总字节数淘汰最久未访问的，单个文件超出时不缓存；文件删除或读失败时删除缓存
+ * 线程安全
+ *
+ * @author changebooks@qq.com
+ */
+public final class FileContentCache {
+    /**
+     * 默认的最大字节数，64M
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    /**
+     * 默认的校验间隔，毫秒
+     */
+    public static final long DEFAULT_REVALIDATE_MILLIS = 1000L;
+
+    /**
+     * 校验间隔，毫秒
+     */
+    private final long revalidateMillis;
+
+    /**
+     * 路径 + 字符集 : 内容
+     */
+    private final WeightedLru<Key, Entry> entries;
+
+    /**
+     * 命中数
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * 未命中数，包括文件已变化
+     */
+    private final LongAdder misses = new LongAdder();
+
+    public FileContentCache() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_REVALIDATE_MILLIS);
+    }
+
+    /**
+     * 初始化
+     *
+     * @param maxBytes         最大字节数，字符串按 2 字节每字符计
+     * @param revalidateMillis 校验间隔，毫秒，0 每次校验
+     */
+    public FileContentCache(long maxBytes, long revalidateMillis) {
+        AssertUtils.isPositive(maxBytes, "maxBytes");
+        AssertUtils.nonNegative(revalidateMillis, "revalidateMillis");
+
+        this.revalidateMillis = revalidateMillis;
+        this.entries = new WeightedLru<>(maxBytes, entry -> entry.weight);
+    }
+
+    /**
+     * 读文件，缓存，返回副本
+     *
+     * @param path 文件
+     * @return 文件内容
+     * @throws IOException 读失败
+     */
+    public byte[] getBytes(Path path) throws IOException {
+        return ((byte[]) get(path, null)).clone();
+    }
+
+    /**
+     * 读文件，缓存，不复制
+     *
+     * @param path 文件
+     * @return 文件内容，只读
+     * @throws IOException 读失败
+     */
+    public ByteBuffer getByteBuffer(Path path) throws IOException {
+        return ByteBuffer.wrap((byte[]) get(path, null)).asReadOnlyBuffer();
+    }
+
+    /**
+     * 读文本，缓存解码后的字符串
+     *
+     * @param path    文本文件
+     * @param charset 字符集
+     * @return 文本内容
+     * @throws IOException 读失败
+     */
+    public String getString(Path path, Charset charset) throws IOException {
+        AssertUtils.nonNull(charset, "charset");
+
+        return (String) get(path, charset);
+    }
+
+    /**
+     * 读文本，默认字符集，同 {@link FileUtils#getChars(File)}
+     *
+     * @param f 文本文件
+     * @return 文本内容
+     * @throws IOException 读失败
+     */
+    public String getChars(File f) throws IOException {
+        AssertUtils.nonNull(f, "f");
+
+        return getChars(f.toPath());
+    }
+
+    /**
+     * 读文本，默认字符集
+     *
+     * @param path 文本文件
+     * @return 文本内容
+     * @throws IOException 读失败
+     */
+    public String getChars(Path path) throws IOException {
+        return getString(path, Charset.defaultCharset());
+    }
+
+    /**
+     * 删除文件的缓存，所有字符集
+     *
+     * @param path 文件
+     */
+    public void invalidate(Path path) {
+        AssertUtils.nonNull(path, "path");
+
+        Path absolute = path.toAbsolutePath();
+        entries.removeIf(key -> key.path.equals(absolute));
+    }
+
+    /**
+     * 清空，不重置统计
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 缓存的文件数
+     *
+     * @return size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 缓存的权重，字节数，字符串按 2 字节每字符计
+     *
+     * @return weight
+     */
+    public long getWeight() {
+        return entries.getWeight();
+    }
+
+    public long getMaxBytes() {
+        return entries.getMaxWeight();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return entries.getEvictions();
+    }
+
+    /**
+     * 命中率
+     *
+     * @return hit rate, 没有请求 return 0
+     */
+    public double getHitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total > 0L ? (double) hit / total : 0.0d;
+    }
+
+    /**
+     * 读缓存，过了校验间隔时比较文件属性，变化时重新读
+     */
+    private Object get(Path path, Charset charset) throws IOException {
+        AssertUtils.nonNull(path, "path");
+
+        Key key = new Key(path.toAbsolutePath(), charset);
+        long now = CoarseClock.currentTimeMillis();
+
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.validatedAt < revalidateMillis) {
+            hits.increment();
+            return entry.value;
+        }
+
+        try {
+            return entries.compute(key, (k, previous) -> revalidate(k, previous, now)).value;
+        } catch (UncheckedIOException ex) {
+            if (ex.getCause() instanceof NoSuchFileException) {
+                invalidate(key.path);
+            } else {
+                entries.remove(key);
+            }
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * 比较文件属性，未变化时返回原缓存，变化时重新读
+     * 在 compute 内执行，IOException 包装为 UncheckedIOException
+     */
+    private Entry revalidate(Key key, Entry previous, long now) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(key.path, BasicFileAttributes.class);
+            if (previous != null && previous.matches(attrs)) {
+                previous.validatedAt = now;
+                hits.increment();
+                return previous;
+            }
+
+            misses.increment();
+            return load(key, attrs, now);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * 读文件，先取属性再读内容，读取期间变化时下次校验发现
+     */
+    private static Entry load(Key key, BasicFileAttributes attrs, long now) throws IOException {
+        byte[] data = FileUtils.readBytes(key.path);
+
+        if (key.charset != null) {
+            String text = new String(data, key.charset);
+            return new Entry(text, (long) text.length() << 1, attrs, now);
+        } else {
+            return new Entry(data, data.length, attrs, now);
+        }
+    }
+
+    /**
+     * 路径 + 字符集，字节内容的字符集 null
+     */
+    private static final class Key {
+        /**
+         * 绝对路径
+         */
+        private final Path path;
+
+        /**
+         * 字符集
+         */
+        private final Charset charset;
+
+        Key(Path path, Charset charset) {
+            this.path = path;
+            this.charset = charset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) o;
+            return path.equals(other.path) && Objects.equals(charset, other.charset);
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + Objects.hashCode(charset);
+        }
+
+    }
+
+    /**
+     * 缓存的内容
+     */
+    private static final class Entry {
+        /**
+         * byte[] / String
+         */
+        private final Object value;
+
+        /**
+         * 字节数
+         */
+        private final long weight;
+
+        /**
+         * 修改时间
+         */
+        private final FileTime lastModifiedTime;
+
+        /**
+         * 文件大小
+         */
+        private final long size;
+
+        /**
+         * fileKey，不支持时 null
+         */
+        private final Object fileKey;
+
+        /**
+         * 上次校验的时间，毫秒
+         */
+        private volatile long validatedAt;
+
+        Entry(Object value, long weight, BasicFileAttributes attrs, long now) {
+            this.value = value;
+            this.weight = weight;
+            this.lastModifiedTime = attrs.lastModifiedTime();
+            this.size = attrs.size();
+            this.fileKey = attrs.fileKey();
+            this.validatedAt = now;
+        }
+
+        /**
+         * 文件未变化？
+         */
+        boolean matches(BasicFileAttributes attrs) {
+            return size == attrs.size()
+                    && lastModifiedTime.equals(attrs.lastModifiedTime())
+                    && Objects.equals(fileKey, attrs.fileKey());
+        }
+
+    }
+
+}
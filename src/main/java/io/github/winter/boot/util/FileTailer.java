@@ -0,0 +1,472 @@
+package io.github.winter.boot.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 增量读取增长中的文本文件，eg: 日志
+ * 记录已读的字节位置，每次只读新增的完整行，按批回调，复用读缓冲
+ * 按 fileKey（inode）识别轮转：先读完旧文件，再从头读新文件；文件变小视为截断，从头读
+ * 用 WatchService 等待变化，不支持时按间隔轮询
+ * 可持久化位置，重启后从位置继续，不重新扫描
+ * 行分隔符 "\n"、"\r\n"，字符集须兼容 ASCII 换行符
+ * 非线程安全，用完须关闭
+ *
+ * @author changebooks@qq.com
+ */
+public final class FileTailer implements Closeable {
+    /**
+     * 默认的读缓冲大小，也是每批的最大字节数
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 读缓冲的上限，也是单行的最大字节数，1G
+     */
+    public static final int MAX_BUFFER_SIZE = 1 << 30;
+
+    /**
+     * 默认的轮询间隔，毫秒
+     */
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * 位置文件的分隔符
+     */
+    private static final String CHECKPOINT_SEPARATOR = " ";
+
+    /**
+     * 文件
+     */
+    private final Path path;
+
+    /**
+     * 位置文件，null 不持久化
+     */
+    private final Path checkpoint;
+
+    /**
+     * 字符集
+     */
+    private final Charset charset;
+
+    /**
+     * 轮询间隔，毫秒
+     */
+    private final long pollIntervalMillis;
+
+    /**
+     * 监听父目录，不支持时 null
+     */
+    private final WatchService watcher;
+
+    /**
+     * 每批的行，复用
+     */
+    private final List<String> lines = new ArrayList<>();
+
+    /**
+     * 读缓冲，单行超出时扩容
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * 当前文件，不存在时 null
+     */
+    private FileChannel channel;
+
+    /**
+     * 当前文件的 fileKey，不支持时 null
+     */
+    private Object fileKey;
+
+    /**
+     * 已回调的完整行之后的字节位置
+     */
+    private long offset;
+
+    private FileTailer(Path path, Path checkpoint, Charset charset, int bufferSize, long pollIntervalMillis, WatchService watcher) {
+        this.path = path;
+        this.checkpoint = checkpoint;
+        this.charset = charset;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.watcher = watcher;
+    }
+
+    /**
+     * 打开，UTF-8，不持久化位置，从头读
+     *
+     * @param path 文件，可以还不存在
+     * @return the {@link FileTailer} instance
+     * @throws IOException 打开失败
+     */
+    public static FileTailer open(Path path) throws IOException {
+        return open(path, null, StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE, DEFAULT_POLL_INTERVAL_MILLIS);
+    }
+
+    /**
+     * 打开，有位置文件且 fileKey 相同时从位置继续，否则从头读
+     *
+     * @param path               文件，可以还不存在
+     * @param checkpoint         位置文件，null 不持久化
+     * @param charset            字符集，须兼容 ASCII 换行符
+     * @param bufferSize         读缓冲大小，每批的最大字节数，不超过 {@link #MAX_BUFFER_SIZE}
+     * @param pollIntervalMillis 轮询间隔，毫秒，有 WatchService 时是最长等待
+     * @return the {@link FileTailer} instance
+     * @throws IOException 打开失败
+     */
+    public static FileTailer open(Path path, Path checkpoint, Charset charset, int bufferSize, long pollIntervalMillis) throws IOException {
+        AssertUtils.nonNull(path, "path");
+        AssertUtils.nonNull(charset, "charset");
+        AssertUtils.isPositive(bufferSize, "bufferSize");
+        Assert.checkArgument(bufferSize <= MAX_BUFFER_SIZE, String.format("bufferSize must be <= %d", MAX_BUFFER_SIZE));
+        AssertUtils.isPositive(pollIntervalMillis, "pollIntervalMillis");
+
+        Path absolute = path.toAbsolutePath();
+        FileTailer result = new FileTailer(absolute, checkpoint, charset, bufferSize, pollIntervalMillis, newWatcher(absolute.getParent()));
+        try {
+            result.restore();
+        } catch (IOException | RuntimeException ex) {
+            result.close();
+            throw ex;
+        }
+        return result;
+    }
+
+    /**
+     * 读新增的完整行，不等待
+     *
+     * @param action 批回调，返回后才推进位置；抛出异常时位置不变，下次重读
+     * @return 回调的行数
+     * @throws IOException 读失败、回调失败或单行超过 {@link #MAX_BUFFER_SIZE}
+     */
+    public int poll(BatchCallback action) throws IOException {
+        AssertUtils.nonNull(action, "action");
+
+        int count = 0;
+        BasicFileAttributes attrs = readAttributes();
+        if (channel != null && attrs != null && fileKey != null && !Objects.equals(fileKey, attrs.fileKey())) {
+            // 轮转，读完旧文件，包括最后不完整的行
+            count += readAvailable(action, true);
+            switchTo(null);
+        }
+
+        if (channel == null) {
+            if (attrs == null) {
+                return count;
+            }
+            switchTo(attrs);
+        }
+
+        if (channel.size() < offset) {
+            offset = 0L;
+        }
+
+        count += readAvailable(action, false);
+        if (count > 0) {
+            save();
+        }
+        return count;
+    }
+
+    /**
+     * 读新增的完整行，没有时最多等待 timeout
+     *
+     * @param action  批回调
+     * @param timeout 最长等待
+     * @param unit    时间单位
+     * @return 回调的行数
+     * @throws IOException 读失败、回调失败或被中断
+     */
+    public int poll(BatchCallback action, long timeout, TimeUnit unit) throws IOException {
+        AssertUtils.nonNegative(timeout, "timeout");
+        AssertUtils.nonNull(unit, "unit");
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            int count = poll(action);
+            long remaining = deadline - System.nanoTime();
+            if (count > 0 || remaining <= 0L) {
+                return count;
+            }
+
+            await(Math.min(TimeUnit.NANOSECONDS.toMillis(remaining) + 1L, pollIntervalMillis));
+        }
+    }
+
+    /**
+     * 已回调的完整行之后的字节位置
+     *
+     * @return offset
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 用 WatchService？
+     *
+     * @return watching ? true : false，false 时按间隔轮询
+     */
+    public boolean isWatching() {
+        return watcher != null;
+    }
+
+    /**
+     * 保存位置后关闭
+     *
+     * @throws IOException 关闭失败
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            save();
+        } finally {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } finally {
+                if (watcher != null) {
+                    watcher.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 从 offset 读到文件尾，按批回调完整的行
+     *
+     * @param flushPartial 文件尾不完整的行也回调（文件已轮转，不会再增长）
+     */
+    private int readAvailable(BatchCallback action, boolean flushPartial) throws IOException {
+        int count = 0;
+        while (true) {
+            buffer.clear();
+            int length = 0;
+            int num;
+            while (buffer.hasRemaining() && (num = channel.read(buffer, offset + length)) > 0) {
+                length += num;
+            }
+
+            if (length == 0) {
+                return count;
+            }
+
+            boolean eof = length < buffer.capacity();
+            int end = length;
+            if (!eof || !flushPartial) {
+                while (end > 0 && buffer.get(end - 1) != '\n') {
+                    end--;
+                }
+            }
+
+            if (end == 0) {
+                if (eof) {
+                    return count;
+                }
+
+                // 单行超出缓冲，扩容后重读
+                if (buffer.capacity() >= MAX_BUFFER_SIZE) {
+                    throw new IOException(String.format("line exceeds %d bytes, path: %s, offset: %d", MAX_BUFFER_SIZE, path, offset));
+                }
+
+                buffer = ByteBuffer.allocate((int) Math.min((long) buffer.capacity() << 1, MAX_BUFFER_SIZE));
+                continue;
+            }
+
+            count += deliver(action, end);
+            offset += end;
+
+            if (eof) {
+                return count;
+            }
+        }
+    }
+
+    /**
+     * 分割 buffer[0, end) 为行，回调
+     */
+    private int deliver(BatchCallback action, int end) throws IOException {
+        lines.clear();
+
+        byte[] bytes = buffer.array();
+        int start = 0;
+        for (int i = 0; i < end; i++) {
+            if (bytes[i] == '\n') {
+                lines.add(decode(bytes, start, i));
+                start = i + 1;
+            }
+        }
+
+        if (start < end) {
+            lines.add(decode(bytes, start, end));
+        }
+
+        if (!lines.isEmpty()) {
+            action.doInBatch(lines);
+        }
+        return lines.size();
+    }
+
+    /**
+     * 解码一行，去掉 "\r"
+     */
+    private String decode(byte[] bytes, int from, int to) {
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        return new String(bytes, from, to - from, charset);
+    }
+
+    /**
+     * 切换到当前路径的文件，从头读；attrs null 时只关闭旧文件
+     */
+    private void switchTo(BasicFileAttributes attrs) throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+
+        offset = 0L;
+        fileKey = null;
+
+        if (attrs != null) {
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            } catch (NoSuchFileException ex) {
+                return;
+            }
+            fileKey = attrs.fileKey();
+        }
+    }
+
+    /**
+     * 恢复位置，fileKey 相同且不超过文件大小时从位置继续
+     * 位置文件为空或格式错误（eg: 崩溃前 rename 未刷盘）时从头读
+     */
+    private void restore() throws IOException {
+        BasicFileAttributes attrs = readAttributes();
+        if (attrs == null) {
+            return;
+        }
+
+        switchTo(attrs);
+        if (checkpoint == null || !Files.exists(checkpoint)) {
+            return;
+        }
+
+        String text = new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim();
+        int i = text.indexOf(CHECKPOINT_SEPARATOR);
+        long savedOffset;
+        try {
+            savedOffset = Long.parseLong(i < 0 ? text : text.substring(0, i));
+        } catch (NumberFormatException ex) {
+            return;
+        }
+        String savedKey = i < 0 ? "" : text.substring(i + 1);
+
+        if (savedKey.equals(String.valueOf(fileKey)) && savedOffset >= 0L && savedOffset <= channel.size()) {
+            offset = savedOffset;
+        }
+    }
+
+    /**
+     * 保存位置，原子替换，不刷盘
+     */
+    private void save() throws IOException {
+        if (checkpoint != null && channel != null) {
+            String text = offset + CHECKPOINT_SEPARATOR + fileKey;
+            FileUtils.writeAtomically(checkpoint, text, StandardCharsets.UTF_8, false);
+        }
+    }
+
+    /**
+     * 文件的属性，不存在 return null
+     */
+    private BasicFileAttributes readAttributes() throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * 等待父目录的变化，最多 millis
+     */
+    private void await(long millis) throws IOException {
+        try {
+            if (watcher == null) {
+                Thread.sleep(millis);
+                return;
+            }
+
+            WatchKey key = watcher.poll(millis, TimeUnit.MILLISECONDS);
+            while (key != null) {
+                key.pollEvents();
+                key.reset();
+                key = watcher.poll();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("poll interrupted, path: " + path);
+        } catch (ClosedWatchServiceException ex) {
+            throw new IOException("tailer closed, path: " + path, ex);
+        }
+    }
+
+    /**
+     * 监听目录的创建和修改，不支持时 return null
+     */
+    private static WatchService newWatcher(Path directory) {
+        if (directory == null) {
+            return null;
+        }
+
+        WatchService watcher = null;
+        try {
+            watcher = directory.getFileSystem().newWatchService();
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            return watcher;
+        } catch (IOException | UnsupportedOperationException ex) {
+            if (watcher != null) {
+                try {
+                    watcher.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 批回调
+     */
+    public interface BatchCallback {
+        /**
+         * Use Lines
+         *
+         * @param lines 一批完整的行，不含分隔符；列表是复用的，只在回调内有效
+         * @throws IOException 处理失败，位置不推进
+         */
+        void doInBatch(List<String> lines) throws IOException;
+    }
+
+}
@@ -1,13 +1,19 @@
 package io.github.winter.boot.util;
 
 import java.io.*;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 文件读写
@@ -25,14 +31,259 @@ public final class FileUtils {
      */
     public static final String EXTENSION_SEPARATOR = ".";
 
+    /**
+     * 原子写的临时文件后缀
+     */
+    public static final String TEMP_SUFFIX = ".tmp";
+
     /**
      * 默认的缓冲大小
      */
     private static final int BUFFER_SIZE = 1024;
 
+    /**
+     * FileChannel 每次读的最大字节数，限制 JDK 临时直接缓冲的大小
+     */
+    private static final int CHANNEL_READ_SIZE = 1 << 20;
+
+    /**
+     * 按行读的字符缓冲大小
+     */
+    private static final int LINE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 数组的最大长度
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
     private FileUtils() {
     }
 
+    /**
+     * 读文件
+     * 按文件大小预先分配数组，FileChannel 批量读，不逐次扩容
+     *
+     * @param path 文件
+     * @return 文件内容
+     * @throws IOException 读失败
+     */
+    public static byte[] readBytes(Path path) throws IOException {
+        checkFile(path);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Assert.checkArgument(size <= MAX_ARRAY_SIZE, String.format("file too large, size: %d, path: %s", size, path));
+
+            byte[] result = new byte[(int) size];
+            int length = 0;
+            while (true) {
+                length = fill(channel, result, length);
+                if (length < result.length) {
+                    return Arrays.copyOf(result, length);
+                }
+
+                // 读取期间文件变大，试读一个字节确认
+                ByteBuffer probe = ByteBuffer.allocate(1);
+                if (channel.read(probe) <= 0) {
+                    return result;
+                }
+
+                Assert.checkArgument(result.length < MAX_ARRAY_SIZE, String.format("file too large, path: %s", path));
+                int capacity = (int) Math.min(MAX_ARRAY_SIZE, Math.max((long) result.length << 1, BUFFER_SIZE));
+                result = Arrays.copyOf(result, capacity);
+                result[length++] = probe.get(0);
+            }
+        }
+    }
+
+    /**
+     * 读文本
+     * 读全部字节后一次解码
+     *
+     * @param path    文本文件
+     * @param charset 字符集
+     * @return 文本内容
+     * @throws IOException 读失败
+     */
+    public static String readString(Path path, Charset charset) throws IOException {
+        AssertUtils.nonNull(charset, "charset");
+
+        return new String(readBytes(path), charset);
+    }
+
+    /**
+     * 读文本，按行分割
+     * 行分隔符 "\n"、"\r\n"、"\r"，同 {@link BufferedReader#readLine()}
+     *
+     * @param path    文本文件
+     * @param charset 字符集
+     * @return 行列表
+     * @throws IOException 读失败
+     */
+    public static List<String> readLines(Path path, Charset charset) throws IOException {
+        String text = readString(path, charset);
+
+        List<String> result = new ArrayList<>();
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                result.add(text.substring(start, i));
+                if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+
+        if (start < length) {
+            result.add(text.substring(start));
+        }
+
+        return result;
+    }
+
+    /**
+     * 读文本，按行惰性读，不加载整个文件
+     * 用完须关闭 Stream，关闭时关闭文件
+     *
+     * @param path    文本文件
+     * @param charset 字符集
+     * @return 行的 Stream
+     * @throws IOException 打开失败
+     */
+    public static Stream<String> lines(Path path, Charset charset) throws IOException {
+        checkFile(path);
+        AssertUtils.nonNull(charset, "charset");
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(path), charset), LINE_BUFFER_SIZE);
+        try {
+            return reader.lines().onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (Throwable ex) {
+            reader.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * 读文本，按行回调，每行不创建对象
+     * 回调的 line 是复用的，只在回调内有效，需保留时调用 toString()
+     * 行分隔符 "\n"、"\r\n"、"\r"，同 {@link BufferedReader#readLine()}
+     *
+     * @param path    文本文件
+     * @param charset 字符集
+     * @param action  行回调
+     * @return 行数
+     * @throws IOException 读失败
+     */
+    public static long forEachLine(Path path, Charset charset, LineCallback action) throws IOException {
+        checkFile(path);
+        AssertUtils.nonNull(charset, "charset");
+        AssertUtils.nonNull(action, "action");
+
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), charset)) {
+            char[] buf = new char[LINE_BUFFER_SIZE];
+            CharBuffer view = CharBuffer.wrap(buf);
+            StringBuilder partial = new StringBuilder();
+            boolean skipLf = false;
+            long count = 0L;
+
+            int num;
+            while ((num = reader.read(buf)) != -1) {
+                int start = 0;
+                for (int i = 0; i < num; i++) {
+                    char c = buf[i];
+                    if (skipLf) {
+                        skipLf = false;
+                        if (c == '\n') {
+                            start = i + 1;
+                            continue;
+                        }
+                    }
+
+                    if (c == '\n' || c == '\r') {
+                        if (partial.length() == 0) {
+                            view.clear();
+                            view.position(start).limit(i);
+                            action.doInLine(view);
+                        } else {
+                            partial.append(buf, start, i - start);
+                            action.doInLine(partial);
+                            partial.setLength(0);
+                        }
+
+                        count++;
+                        skipLf = c == '\r';
+                        start = i + 1;
+                    }
+                }
+
+                // 跨缓冲的行，暂存
+                partial.append(buf, start, num - start);
+            }
+
+            if (partial.length() > 0) {
+                action.doInLine(partial);
+                count++;
+            }
+
+            return count;
+        }
+    }
+
+    /**
+     * 并行按行读，内存映射文件，按换行符对齐拆分，在 ForkJoinPool 上处理
+     * 行分隔符 "\n"、"\r\n"，顺序同文件
+     * 用完须关闭 Stream，关闭时关闭文件
+     *
+     * @param path    文本文件
+     * @param charset 字符集，须兼容 ASCII 换行符，eg: UTF-8、GBK、ISO-8859-1
+     * @return 行的并行 Stream
+     * @throws IOException 打开失败
+     */
+    public static Stream<String> parallelLines(Path path, Charset charset) throws IOException {
+        checkFile(path);
+        AssertUtils.nonNull(charset, "charset");
+        Assert.checkArgument(Arrays.equals("\r\n".getBytes(charset), new byte[]{'\r', '\n'}),
+                String.format("charset must be ascii compatible, charset: %s", charset));
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return parallelStream(channel, MappedLineSpliterator.ofStrings(channel, charset, channel.size()));
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * 并行按行读，行是内存映射的只读切片，不复制，不解码
+     * 行分隔符 "\n"、"\r\n"，顺序同文件
+     * 用完须关闭 Stream，关闭时关闭文件
+     *
+     * @param path 文件
+     * @return 行的并行 Stream
+     * @throws IOException 打开失败
+     */
+    public static Stream<ByteBuffer> parallelLineSlices(Path path) throws IOException {
+        checkFile(path);
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return parallelStream(channel, MappedLineSpliterator.ofSlices(channel, channel.size()));
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
     /**
      * 读文本，按行读
      *
@@ -138,6 +389,165 @@ public final class FileUtils {
         }
     }
 
+    /**
+     * 原子写文本，读者只能看到旧内容或完整的新内容
+     *
+     * @param path    文件
+     * @param s       文本内容
+     * @param charset 字符集
+     * @param fsync   刷盘？false 时不保证崩溃后的持久性，吞吐更高
+     * @throws IOException 写失败
+     */
+    public static void writeAtomically(Path path, String s, Charset charset, final boolean fsync) throws IOException {
+        AssertUtils.nonNull(s, "s");
+        AssertUtils.nonNull(charset, "charset");
+
+        writeAtomically(path, s.getBytes(charset), fsync);
+    }
+
+    /**
+     * 原子写文件，读者只能看到旧内容或完整的新内容
+     * 先写同目录的临时文件，force() 刷盘，再 ATOMIC_MOVE 替换，最后刷盘目录
+     * 文件已存在时保留权限，尽量保留属主、属组；新文件按 umask 的默认权限
+     *
+     * @param path  文件
+     * @param data  文件内容
+     * @param fsync 刷盘？false 时不保证崩溃后的持久性，吞吐更高
+     * @throws IOException 写失败
+     */
+    public static void writeAtomically(Path path, byte[] data, final boolean fsync) throws IOException {
+        writeAtomically(Collections.singletonMap(path, data), fsync);
+    }
+
+    /**
+     * 批量原子写文件，每个文件单独原子替换
+     * 先写全部临时文件并刷盘，再逐个替换，每个目录只刷盘一次
+     * 写临时文件失败时不替换任何文件
+     *
+     * @param files 文件 : 文件内容
+     * @param fsync 刷盘？false 时不保证崩溃后的持久性，吞吐更高
+     * @throws IOException 写失败
+     */
+    public static void writeAtomically(Map<Path, byte[]> files, final boolean fsync) throws IOException {
+        AssertUtils.nonNull(files, "files");
+
+        Map<Path, Path> temps = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Path, byte[]> entry : files.entrySet()) {
+                Path path = entry.getKey();
+                AssertUtils.nonNull(path, "path");
+                AssertUtils.nonNull(entry.getValue(), "data");
+                Assert.checkArgument(!Files.isDirectory(path), String.format("exists's target must be a file, path: %s", path.toAbsolutePath()));
+
+                Path temp = createTempSibling(path);
+                temps.put(path, temp);
+                writeTemp(temp, entry.getValue(), fsync);
+            }
+
+            Set<Path> directories = new LinkedHashSet<>();
+            for (Iterator<Map.Entry<Path, Path>> iterator = temps.entrySet().iterator(); iterator.hasNext(); ) {
+                Map.Entry<Path, Path> entry = iterator.next();
+                Files.move(entry.getValue(), entry.getKey(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                iterator.remove();
+                directories.add(entry.getValue().getParent());
+            }
+
+            if (fsync) {
+                for (Path directory : directories) {
+                    forceDirectory(directory);
+                }
+            }
+        } finally {
+            for (Path temp : temps.values()) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * 复制文件，由内核复制，不经过堆内存
+     * target 不存在时创建，存在时覆盖，不能是 source 本身
+     *
+     * @param source 源文件
+     * @param target 目标文件
+     * @return 复制的字节数
+     * @throws IOException 读写失败
+     */
+    public static long copy(Path source, Path target) throws IOException {
+        checkFile(source);
+        AssertUtils.nonNull(target, "target");
+        // 先打开 target 会截断，source 是同一文件时内容丢失
+        Assert.checkArgument(!Files.exists(target) || !Files.isSameFile(source, target),
+                String.format("source and target are the same file, path: %s", target.toAbsolutePath()));
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return transferTo(in, 0L, in.size(), out);
+        }
+    }
+
+    /**
+     * 复制文件的一段到目标文件的指定位置，由内核复制
+     * target 不存在时创建，不截断
+     *
+     * @param source         源文件
+     * @param position       源文件的起始位置
+     * @param count          最多复制的字节数，超出文件尾时截止到文件尾
+     * @param target         目标文件
+     * @param targetPosition 目标文件的写入位置
+     * @return 复制的字节数
+     * @throws IOException 读写失败
+     */
+    public static long copy(Path source, long position, long count, Path target, long targetPosition) throws IOException {
+        checkFile(source);
+        AssertUtils.nonNegative(position, "position");
+        AssertUtils.nonNegative(count, "count");
+        AssertUtils.nonNull(target, "target");
+        AssertUtils.nonNegative(targetPosition, "targetPosition");
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // transferFrom 不能写到文件尾之后，用 transferTo 写 out 的当前位置
+            out.position(targetPosition);
+            return transferTo(in, position, count, out);
+        }
+    }
+
+    /**
+     * 发送文件，由内核复制，eg: 发送到 SocketChannel
+     * 不关闭 target，target 须为阻塞模式
+     *
+     * @param source 源文件
+     * @param target 目标 channel
+     * @return 发送的字节数
+     * @throws IOException 读写失败
+     */
+    public static long transfer(Path source, WritableByteChannel target) throws IOException {
+        return transfer(source, 0L, Long.MAX_VALUE, target);
+    }
+
+    /**
+     * 发送文件的一段，由内核复制，eg: HTTP Range
+     * 不关闭 target，target 须为阻塞模式
+     *
+     * @param source   源文件
+     * @param position 起始位置
+     * @param count    最多发送的字节数，超出文件尾时截止到文件尾
+     * @param target   目标 channel
+     * @return 发送的字节数
+     * @throws IOException 读写失败
+     */
+    public static long transfer(Path source, long position, long count, WritableByteChannel target) throws IOException {
+        checkFile(source);
+        AssertUtils.nonNegative(position, "position");
+        AssertUtils.nonNegative(count, "count");
+        AssertUtils.nonNull(target, "target");
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            return transferTo(in, position, count, target);
+        }
+    }
+
     /**
      * 创建多层次目录
      * if directory exists return true
@@ -240,6 +650,51 @@ public final class FileUtils {
         return true;
     }
 
+    /**
+     * 并行删除文件和目录，按子目录 fork-join，不读取进度
+     * if root not exists return false
+     *
+     * @param root        the {@link Path} instance
+     * @param parallelism 并行度，最多同时删除的线程数
+     * @return deleted ? true : false
+     * @throws IOException if an I/O error occurs
+     */
+    public static boolean deleteRecursively(Path root, int parallelism) throws IOException {
+        return deleteRecursively(root, parallelism, new FileWalker.Progress());
+    }
+
+    /**
+     * 并行删除文件和目录，按子目录 fork-join
+     * if root not exists return false
+     *
+     * @param root        the {@link Path} instance
+     * @param parallelism 并行度
+     * @param progress    进度，删除中可在其它线程读取
+     * @return deleted ? true : false
+     * @throws IOException if an I/O error occurs
+     */
+    public static boolean deleteRecursively(Path root, int parallelism, FileWalker.Progress progress) throws IOException {
+        AssertUtils.nonNull(root, "root");
+
+        if (!Files.exists(root, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+
+        FileWalker.walk(root, parallelism, new FileWalker.Visitor() {
+            @Override
+            public void visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+            }
+
+            @Override
+            public void postVisitDirectory(Path dir) throws IOException {
+                Files.delete(dir);
+            }
+        }, progress);
+
+        return true;
+    }
+
     /**
      * 取扩展名
      *
@@ -259,6 +714,158 @@ public final class FileUtils {
         return fileName.substring(num + 1);
     }
 
+    /**
+     * 检查是存在的文件
+     */
+    private static void checkFile(Path path) {
+        AssertUtils.nonNull(path, "path");
+        Assert.checkArgument(Files.exists(path), String.format("target not exists, path: %s", path.toAbsolutePath()));
+        Assert.checkArgument(Files.isRegularFile(path), String.format("target must be a file, path: %s", path.toAbsolutePath()));
+    }
+
+    /**
+     * transferTo 直到完成或到文件尾，单次调用有上限（Linux 约 2G），循环调用
+     */
+    private static long transferTo(FileChannel in, long position, long count, WritableByteChannel out) throws IOException {
+        long remaining = Math.max(0L, Math.min(count, in.size() - position));
+
+        long total = 0L;
+        while (total < remaining) {
+            long num = in.transferTo(position + total, remaining - total, out);
+            if (num <= 0L) {
+                break;
+            }
+            total += num;
+        }
+        return total;
+    }
+
+    /**
+     * 同目录的临时文件，保证 ATOMIC_MOVE 不跨文件系统
+     * 不用 createTempFile（权限 0600），按 umask 的默认权限创建；path 已存在时复制其权限
+     */
+    private static Path createTempSibling(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Path directory = absolute.getParent();
+        Assert.checkArgument(directory != null, String.format("target must have a parent, path: %s", absolute));
+
+        String prefix = "." + absolute.getFileName() + ".";
+        while (true) {
+            Path temp = directory.resolve(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + TEMP_SUFFIX);
+            try {
+                Files.createFile(temp);
+            } catch (FileAlreadyExistsException ex) {
+                continue;
+            }
+
+            try {
+                copyPosixAttributes(absolute, temp);
+            } catch (IOException | RuntimeException ex) {
+                Files.deleteIfExists(temp);
+                throw ex;
+            }
+            return temp;
+        }
+    }
+
+    /**
+     * 复制权限，写入内容前调用；属主、属组尽量复制，无权限时忽略
+     * 不支持 POSIX 或 source 不存在时不处理
+     */
+    private static void copyPosixAttributes(Path source, Path target) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (view == null || !Files.exists(source)) {
+            return;
+        }
+
+        PosixFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(source, PosixFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            return;
+        }
+
+        view.setPermissions(attrs.permissions());
+
+        PosixFileAttributes current = view.readAttributes();
+        try {
+            if (!current.owner().equals(attrs.owner())) {
+                view.setOwner(attrs.owner());
+            }
+            if (!current.group().equals(attrs.group())) {
+                view.setGroup(attrs.group());
+            }
+        } catch (FileSystemException ignored) {
+            // 非 root 不能修改属主，属组须是自己所在的组
+        }
+    }
+
+    /**
+     * 写临时文件，按需刷盘
+     */
+    private static void writeTemp(Path temp, byte[] data, final boolean fsync) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+
+            if (fsync) {
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * 刷盘目录，持久化 rename
+     * 部分平台（Windows）不能打开目录，忽略
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException ignored) {
+            return;
+        }
+
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * 并行 Stream，关闭时关闭 channel，创建失败时由调用方关闭
+     */
+    private static <T> Stream<T> parallelStream(FileChannel channel, Spliterator<T> spliterator) {
+        return StreamSupport.stream(spliterator, true).onClose(() -> {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * 从 channel 当前位置读，填满 dst 或读到文件尾
+     *
+     * @return dst 中已读的字节数
+     */
+    private static int fill(FileChannel channel, byte[] dst, int offset) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(dst);
+        buf.position(offset);
+        while (buf.hasRemaining()) {
+            buf.limit(Math.min(dst.length, buf.position() + CHANNEL_READ_SIZE));
+            if (channel.read(buf) < 0) {
+                break;
+            }
+            buf.limit(dst.length);
+        }
+        return buf.position();
+    }
+
     /**
      * 读回调
      */
@@ -273,4 +880,17 @@ public final class FileUtils {
         T doInBuffer(BufferedReader reader) throws IOException;
     }
 
+    /**
+     * 行回调
+     */
+    public interface LineCallback {
+        /**
+         * Use Line
+         *
+         * @param line 行内容，不含行分隔符，复用的，只在回调内有效
+         * @throws IOException 处理失败
+         */
+        void doInLine(CharSequence line) throws IOException;
+    }
+
 }
@@ -0,0 +1,243 @@
+package io.github.winter.boot.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并行遍历目录
+ * 每个子目录一个 fork-join 任务，子目录全部处理完才调用 postVisitDirectory
+ * 不跟随符号链接，符号链接按文件处理
+ *
+ * @author changebooks@qq.com
+ */
+public final class FileWalker {
+    /**
+     * 默认的并行度
+     */
+    public static final int DEFAULT_PARALLELISM = ThreadPool.CPU_COUNT;
+
+    private FileWalker() {
+    }
+
+    /**
+     * 并行遍历，默认并行度
+     *
+     * @param root    根目录或文件
+     * @param visitor 访问回调，须线程安全
+     * @return 进度
+     * @throws IOException 遍历或回调失败
+     */
+    public static Progress walk(Path root, Visitor visitor) throws IOException {
+        Progress progress = new Progress();
+        walk(root, DEFAULT_PARALLELISM, visitor, progress);
+        return progress;
+    }
+
+    /**
+     * 并行遍历
+     * 失败时取消未开始的任务，等待执行中的任务结束，抛出第一个错误
+     *
+     * @param root        根目录或文件
+     * @param parallelism 并行度，最多同时执行的线程数
+     * @param visitor     访问回调，须线程安全
+     * @param progress    进度，遍历中可在其它线程读取
+     * @throws IOException 遍历或回调失败
+     */
+    public static void walk(Path root, int parallelism, Visitor visitor, Progress progress) throws IOException {
+        AssertUtils.nonNull(root, "root");
+        AssertUtils.isPositive(parallelism, "parallelism");
+        AssertUtils.nonNull(visitor, "visitor");
+        AssertUtils.nonNull(progress, "progress");
+
+        BasicFileAttributes attrs = Files.readAttributes(root, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        if (!attrs.isDirectory()) {
+            visitor.visitFile(root, attrs);
+            progress.fileVisited(attrs);
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(new DirectoryTask(root, attrs, visitor, progress)).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("walk interrupted, root: " + root, ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IOException("walk failed, root: " + root, cause);
+            }
+        } finally {
+            pool.shutdownNow();
+            try {
+                pool.awaitTermination(1L, TimeUnit.MINUTES);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 目录任务，处理文件，子目录派发为子任务
+     */
+    private static final class DirectoryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 目录
+         */
+        private final transient Path directory;
+
+        /**
+         * 目录的属性
+         */
+        private final transient BasicFileAttributes attrs;
+
+        /**
+         * 访问回调
+         */
+        private final transient Visitor visitor;
+
+        /**
+         * 进度
+         */
+        private final transient Progress progress;
+
+        DirectoryTask(Path directory, BasicFileAttributes attrs, Visitor visitor, Progress progress) {
+            this.directory = directory;
+            this.attrs = attrs;
+            this.visitor = visitor;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (!visitor.preVisitDirectory(directory, attrs)) {
+                    return;
+                }
+
+                List<DirectoryTask> subtasks = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                    for (Path child : stream) {
+                        BasicFileAttributes childAttrs = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        if (childAttrs.isDirectory()) {
+                            DirectoryTask subtask = new DirectoryTask(child, childAttrs, visitor, progress);
+                            subtask.fork();
+                            subtasks.add(subtask);
+                        } else {
+                            visitor.visitFile(child, childAttrs);
+                            progress.fileVisited(childAttrs);
+                        }
+                    }
+                }
+
+                for (DirectoryTask subtask : subtasks) {
+                    subtask.join();
+                }
+
+                visitor.postVisitDirectory(directory);
+                progress.directories.increment();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+    }
+
+    /**
+     * 访问回调，在多个线程上调用，须线程安全
+     */
+    public interface Visitor {
+        /**
+         * 进入目录前
+         *
+         * @param dir   目录
+         * @param attrs 目录的属性
+         * @return 继续遍历 ? true : false，false 时跳过整个目录，不调用 postVisitDirectory
+         * @throws IOException 处理失败
+         */
+        default boolean preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+            return true;
+        }
+
+        /**
+         * 访问文件
+         *
+         * @param file  文件
+         * @param attrs 文件的属性
+         * @throws IOException 处理失败
+         */
+        void visitFile(Path file, BasicFileAttributes attrs) throws IOException;
+
+        /**
+         * 目录下的文件和子目录都处理完后
+         *
+         * @param dir 目录
+         * @throws IOException 处理失败
+         */
+        default void postVisitDirectory(Path dir) throws IOException {
+        }
+    }
+
+    /**
+     * 进度，线程安全
+     */
+    public static final class Progress {
+        /**
+         * 已处理的文件数
+         */
+        private final LongAdder files = new LongAdder();
+
+        /**
+         * 已处理的目录数
+         */
+        private final LongAdder directories = new LongAdder();
+
+        /**
+         * 已处理的文件字节数
+         */
+        private final LongAdder bytes = new LongAdder();
+
+        /**
+         * 处理完一个文件
+         */
+        private void fileVisited(BasicFileAttributes attrs) {
+            files.increment();
+            bytes.add(attrs.size());
+        }
+
+        public long getFiles() {
+            return files.sum();
+        }
+
+        public long getDirectories() {
+            return directories.sum();
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+    }
+
+}
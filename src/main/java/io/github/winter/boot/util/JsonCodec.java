@@ -0,0 +1,196 @@
+package io.github.winter.boot.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 解析Json，指定类型
+ * 预先解析类型，每次只做序列化和反序列化
+ * 线程安全，通过 {@link JsonParser#codec(Class)} 获取
+ *
+ * @param <T> the type of the desired object
+ * @author changebooks@qq.com
+ */
+public final class JsonCodec<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonCodec.class);
+
+    /**
+     * 类型
+     */
+    private final JavaType type;
+
+    /**
+     * Reader，不关闭 InputStream
+     */
+    private final ObjectReader reader;
+
+    /**
+     * Writer，不关闭 OutputStream
+     */
+    private final ObjectWriter writer;
+
+    JsonCodec(JavaType type, ObjectReader reader, ObjectWriter writer) {
+        this.type = type;
+        this.reader = reader;
+        this.writer = writer;
+    }
+
+    /**
+     * Convert Object to Json String
+     *
+     * @param src the object
+     * @return a json string
+     */
+    public String toJson(T src) {
+        try {
+            return writer.writeValueAsString(src);
+        } catch (Throwable ex) {
+            LOGGER.error("toJson failed, writeValueAsString failed, type: {}, throwable: ", type, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Object to Json Bytes (UTF-8)
+     *
+     * @param src the object
+     * @return json bytes
+     */
+    public byte[] toJsonBytes(T src) {
+        try {
+            return writer.writeValueAsBytes(src);
+        } catch (Throwable ex) {
+            LOGGER.error("toJsonBytes failed, writeValueAsBytes failed, type: {}, throwable: ", type, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Write Object to OutputStream (UTF-8)
+     * 不关闭 out
+     *
+     * @param src the object
+     * @param out the output stream
+     * @return written ? true : false
+     */
+    public boolean writeJson(T src, OutputStream out) {
+        try {
+            writer.writeValue(out, src);
+            return true;
+        } catch (Throwable ex) {
+            LOGGER.error("writeJson failed, writeValue failed, type: {}, throwable: ", type, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Convert Json String to Object
+     *
+     * @param json the json string
+     * @return an object of type T from the string
+     */
+    public T fromJson(String json) {
+        try {
+            return reader.readValue(json);
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "fromJson", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Json Bytes to Object
+     *
+     * @param json the json bytes, UTF-8 / UTF-16 / UTF-32
+     * @return an object of type T from the bytes
+     */
+    public T fromJson(byte[] json) {
+        try {
+            return reader.readValue(json);
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "fromJson", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Json Bytes to Object
+     *
+     * @param json   the json bytes, UTF-8 / UTF-16 / UTF-32
+     * @param offset 起始下标
+     * @param length 长度
+     * @return an object of type T from the bytes
+     */
+    public T fromJson(byte[] json, int offset, int length) {
+        try {
+            return reader.readValue(json, offset, length);
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "fromJson", "(" + length + " bytes)", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Json InputStream to Object
+     * 不关闭 in
+     *
+     * @param in the json input stream, UTF-8 / UTF-16 / UTF-32
+     * @return an object of type T from the stream
+     */
+    public T fromJson(InputStream in) {
+        try {
+            return reader.readValue(in);
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "fromJson", in, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Json String to Object，返回值或错误，不记录日志
+     *
+     * @param json the json string
+     * @return a result
+     */
+    public JsonResult<T> tryFromJson(String json) {
+        try {
+            return JsonResult.ok(reader.readValue(json));
+        } catch (Throwable ex) {
+            return JsonResult.fail(ex);
+        }
+    }
+
+    /**
+     * Convert Json Bytes to Object，返回值或错误，不记录日志
+     *
+     * @param json the json bytes, UTF-8 / UTF-16 / UTF-32
+     * @return a result
+     */
+    public JsonResult<T> tryFromJson(byte[] json) {
+        try {
+            return JsonResult.ok(reader.readValue(json));
+        } catch (Throwable ex) {
+            return JsonResult.fail(ex);
+        }
+    }
+
+    public JavaType getType() {
+        return type;
+    }
+
+    public ObjectReader getReader() {
+        return reader;
+    }
+
+    public ObjectWriter getWriter() {
+        return writer;
+    }
+
+}
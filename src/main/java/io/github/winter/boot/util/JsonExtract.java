@@ -0,0 +1,410 @@
+package io.github.winter.boot.util;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 按 Json Pointer 提取，不完整解析
+ * 扫描一次，跳过不需要的子树，全部找到后提前结束
+ * 数字、布尔不装箱；对象、数组只记录位置，按需取原始 Json
+ * 不可变，线程安全，通过 {@link JsonParser#extract(String, String...)} 获取
+ *
+ * @author changebooks@qq.com
+ */
+public final class JsonExtract {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonExtract.class);
+
+    /**
+     * Json 字节，与 text 二选一
+     */
+    private final byte[] bytes;
+
+    /**
+     * Json 字符串，与 bytes 二选一
+     */
+    private final String text;
+
+    /**
+     * 值的类型，未找到 null
+     */
+    private final JsonToken[] tokens;
+
+    /**
+     * 整数值、布尔值（1 / 0）
+     */
+    private final long[] longs;
+
+    /**
+     * 小数值
+     */
+    private final double[] doubles;
+
+    /**
+     * 字符串值、数字的文本
+     */
+    private final String[] strings;
+
+    /**
+     * 原始 Json 起始位置
+     */
+    private final int[] starts;
+
+    /**
+     * 原始 Json 结束位置（不含）
+     */
+    private final int[] ends;
+
+    /**
+     * 未找到的数量
+     */
+    private int remaining;
+
+    private JsonExtract(byte[] bytes, String text, int size) {
+        this.bytes = bytes;
+        this.text = text;
+        this.tokens = new JsonToken[size];
+        this.longs = new long[size];
+        this.doubles = new double[size];
+        this.strings = new String[size];
+        this.starts = new int[size];
+        this.ends = new int[size];
+        this.remaining = size;
+    }
+
+    /**
+     * 提取
+     *
+     * @param json     the json string
+     * @param pointers eg: "/order/customer/id", "/items/0/sku"
+     * @return the result, 格式错误 return null
+     */
+    static JsonExtract of(String json, String... pointers) {
+        try (com.fasterxml.jackson.core.JsonParser p = JsonParser.codec(Object.class).getReader().createParser(json)) {
+            JsonExtract r = new JsonExtract(null, json, pointers.length);
+            r.scan(p, compile(pointers));
+            return r;
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "extract", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 提取
+     *
+     * @param json     the json bytes, UTF-8
+     * @param pointers eg: "/order/customer/id", "/items/0/sku"
+     * @return the result, 格式错误 return null
+     */
+    static JsonExtract of(byte[] json, String... pointers) {
+        try (com.fasterxml.jackson.core.JsonParser p = JsonParser.codec(Object.class).getReader().createParser(json)) {
+            JsonExtract r = new JsonExtract(json, null, pointers.length);
+            r.scan(p, compile(pointers));
+            return r;
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "extract", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 找到？
+     *
+     * @param i pointer 的下标
+     * @return found ? true : false
+     */
+    public boolean isPresent(int i) {
+        return tokens[i] != null;
+    }
+
+    /**
+     * 值的类型
+     *
+     * @param i pointer 的下标
+     * @return VALUE_STRING、VALUE_NUMBER_INT、START_OBJECT、...，未找到 null
+     */
+    public JsonToken getToken(int i) {
+        return tokens[i];
+    }
+
+    /**
+     * 长整数，不装箱
+     *
+     * @param i            pointer 的下标
+     * @param defaultValue 未找到或不是数字时的值
+     * @return the value
+     */
+    public long getLong(int i, long defaultValue) {
+        if (tokens[i] == JsonToken.VALUE_NUMBER_INT && strings[i] == null) {
+            return longs[i];
+        } else if (tokens[i] == JsonToken.VALUE_NUMBER_FLOAT) {
+            return (long) doubles[i];
+        } else {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 小数，不装箱
+     *
+     * @param i            pointer 的下标
+     * @param defaultValue 未找到或不是数字时的值
+     * @return the value
+     */
+    public double getDouble(int i, double defaultValue) {
+        if (tokens[i] == JsonToken.VALUE_NUMBER_FLOAT) {
+            return doubles[i];
+        } else if (tokens[i] == JsonToken.VALUE_NUMBER_INT) {
+            return strings[i] == null ? longs[i] : Double.parseDouble(strings[i]);
+        } else {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 布尔值
+     *
+     * @param i            pointer 的下标
+     * @param defaultValue 未找到或不是布尔值时的值
+     * @return the value
+     */
+    public boolean getBoolean(int i, boolean defaultValue) {
+        if (tokens[i] == JsonToken.VALUE_TRUE || tokens[i] == JsonToken.VALUE_FALSE) {
+            return longs[i] != 0L;
+        } else {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 字符串
+     *
+     * @param i pointer 的下标
+     * @return 字符串值，未找到、null、对象、数组、布尔 return null
+     */
+    public String getString(int i) {
+        return tokens[i] == JsonToken.VALUE_STRING ? strings[i] : null;
+    }
+
+    /**
+     * 原始 Json
+     *
+     * @param i pointer 的下标
+     * @return a json string, 未找到 return null
+     */
+    public String getRaw(int i) {
+        if (tokens[i] == null) {
+            return null;
+        }
+
+        if (bytes != null) {
+            return new String(bytes, starts[i], ends[i] - starts[i], StandardCharsets.UTF_8);
+        } else {
+            return text.substring(starts[i], ends[i]);
+        }
+    }
+
+    /**
+     * 原始 Json 的起始位置，字节输入是字节下标，字符串输入是字符下标
+     *
+     * @param i pointer 的下标
+     * @return offset, 未找到 return -1
+     */
+    public int getRawOffset(int i) {
+        return tokens[i] != null ? starts[i] : -1;
+    }
+
+    /**
+     * 原始 Json 的长度
+     *
+     * @param i pointer 的下标
+     * @return length, 未找到 return -1
+     */
+    public int getRawLength(int i) {
+        return tokens[i] != null ? ends[i] - starts[i] : -1;
+    }
+
+    /**
+     * pointer 数量
+     *
+     * @return size
+     */
+    public int size() {
+        return tokens.length;
+    }
+
+    /**
+     * 解析 pointer
+     */
+    private static JsonPointer[] compile(String[] pointers) {
+        AssertUtils.nonNull(pointers, "pointers");
+
+        JsonPointer[] r = new JsonPointer[pointers.length];
+        for (int i = 0; i < pointers.length; i++) {
+            AssertUtils.nonNull(pointers[i], "pointer");
+            r[i] = JsonPointer.compile(pointers[i]);
+        }
+        return r;
+    }
+
+    /**
+     * 从根开始扫描
+     */
+    private void scan(com.fasterxml.jackson.core.JsonParser p, JsonPointer[] pointers) throws IOException {
+        if (p.nextToken() == null || pointers.length == 0) {
+            return;
+        }
+
+        int[] active = new int[pointers.length];
+        for (int i = 0; i < active.length; i++) {
+            active[i] = i;
+        }
+
+        visit(p, pointers, active, active.length);
+    }
+
+    /**
+     * 访问当前值，pointers[active] 的剩余部分都匹配到当前位置
+     * 当前位置是 pointer 的终点时记录，是中间节点时进入子树，否则跳过子树
+     *
+     * @return 全部找到 ? true : false
+     */
+    private boolean visit(com.fasterxml.jackson.core.JsonParser p, JsonPointer[] pointers, int[] active, int activeSize) throws IOException {
+        JsonToken token = p.currentToken();
+        int start = offset(p.currentTokenLocation());
+
+        boolean descend = false;
+        for (int k = 0; k < activeSize; k++) {
+            if (!pointers[active[k]].matches()) {
+                descend = true;
+                break;
+            }
+        }
+
+        if (token.isStructStart()) {
+            if (descend) {
+                if (visitChildren(p, pointers, active, activeSize, token == JsonToken.START_ARRAY)) {
+                    return true;
+                }
+            } else {
+                p.skipChildren();
+            }
+        } else {
+            p.getText();
+        }
+
+        int end = token.isStructStart() ? offset(p.currentTokenLocation()) + 1 : offset(p.currentLocation());
+        for (int k = 0; k < activeSize; k++) {
+            if (pointers[active[k]].matches()) {
+                record(p, active[k], token, start, end);
+            }
+        }
+
+        return remaining == 0;
+    }
+
+    /**
+     * 访问对象的字段或数组的元素，当前 token 是 START_OBJECT / START_ARRAY
+     *
+     * @return 全部找到 ? true : false
+     */
+    private boolean visitChildren(com.fasterxml.jackson.core.JsonParser p, JsonPointer[] pointers, int[] active, int activeSize, boolean isArray) throws IOException {
+        JsonPointer[] tails = new JsonPointer[pointers.length];
+        int[] childActive = new int[activeSize];
+        int index = 0;
+
+        JsonToken token;
+        while ((token = p.nextToken()) != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY) {
+            String name = null;
+            if (!isArray) {
+                name = p.currentName();
+                p.nextToken();
+            }
+
+            int childSize = 0;
+            for (int k = 0; k < activeSize; k++) {
+                JsonPointer pointer = pointers[active[k]];
+                if (pointer.matches()) {
+                    continue;
+                }
+
+                boolean match = isArray ? pointer.getMatchingIndex() == index : pointer.getMatchingProperty().equals(name);
+                if (match) {
+                    tails[active[k]] = pointer.tail();
+                    childActive[childSize++] = active[k];
+                }
+            }
+
+            if (childSize > 0) {
+                JsonPointer[] childPointers = pointers.clone();
+                for (int k = 0; k < childSize; k++) {
+                    childPointers[childActive[k]] = tails[childActive[k]];
+                }
+
+                if (visit(p, childPointers, childActive, childSize)) {
+                    return true;
+                }
+            } else {
+                p.skipChildren();
+            }
+
+            index++;
+        }
+
+        return false;
+    }
+
+    /**
+     * 记录找到的值
+     */
+    private void record(com.fasterxml.jackson.core.JsonParser p, int i, JsonToken token, int start, int end) throws IOException {
+        if (tokens[i] == null) {
+            remaining--;
+        }
+
+        tokens[i] = token;
+        starts[i] = start;
+        ends[i] = end;
+        strings[i] = null;
+
+        switch (token) {
+            case VALUE_STRING:
+                strings[i] = p.getText();
+                break;
+            case VALUE_NUMBER_INT:
+                if (p.getNumberType() == com.fasterxml.jackson.core.JsonParser.NumberType.BIG_INTEGER) {
+                    strings[i] = p.getText();
+                } else {
+                    longs[i] = p.getLongValue();
+                }
+                break;
+            case VALUE_NUMBER_FLOAT:
+                doubles[i] = p.getDoubleValue();
+                break;
+            case VALUE_TRUE:
+                longs[i] = 1L;
+                break;
+            case VALUE_FALSE:
+                longs[i] = 0L;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 字节输入取字节位置，字符输入取字符位置
+     */
+    private static int offset(JsonLocation location) {
+        long offset = location.getByteOffset() >= 0 ? location.getByteOffset() : location.getCharOffset();
+        return (int) offset;
+    }
+
+}
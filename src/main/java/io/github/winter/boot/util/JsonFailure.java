@@ -0,0 +1,88 @@
+package io.github.winter.boot.util;
+
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DatabindException;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 解析Json失败的类型，按类型计数
+ *
+ * @author changebooks@qq.com
+ */
+public enum JsonFailure {
+    /**
+     * 格式错误，非法的 Json
+     */
+    SYNTAX,
+
+    /**
+     * 类型不匹配，合法的 Json 不能转为目标类型
+     */
+    MAPPING,
+
+    /**
+     * 读写失败
+     */
+    IO,
+
+    /**
+     * 其它，如：参数错误
+     */
+    OTHER;
+
+    /**
+     * 失败次数
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * 失败的类型
+     *
+     * @param ex the throwable
+     * @return the failure type
+     */
+    public static JsonFailure of(Throwable ex) {
+        if (ex instanceof StreamReadException) {
+            return SYNTAX;
+        } else if (ex instanceof DatabindException) {
+            return MAPPING;
+        } else if (ex instanceof IOException) {
+            return IO;
+        } else {
+            return OTHER;
+        }
+    }
+
+    /**
+     * 计数，返回失败的类型
+     *
+     * @param ex the throwable
+     * @return the failure type
+     */
+    public static JsonFailure record(Throwable ex) {
+        JsonFailure r = of(ex);
+        r.count.increment();
+        return r;
+    }
+
+    /**
+     * 失败次数
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 清零，返回清零前的次数
+     *
+     * @return count
+     */
+    public long reset() {
+        return count.sumThenReset();
+    }
+
+}
@@ -0,0 +1,206 @@
+package io.github.winter.boot.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.function.Supplier;
+
+/**
+ * Json 片段缓存
+ * 缓存不可变对象序列化后的 {@link RawJson}，按总权重淘汰最久未使用的
+ * 按对象引用缓存（弱引用，对象回收后片段随之删除），或按 key + 版本号缓存
+ * 权重 = 片段字节数 + 每项的固定开销 {@link #ENTRY_OVERHEAD}
+ * 线程安全，命中不加锁
+ *
+ * @author changebooks@qq.com
+ */
+public final class JsonFragmentCache {
+    /**
+     * 默认的最大字节数，16M
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+
+    /**
+     * 每项的固定开销，字节，估算 map 节点、key、片段对象的大小
+     */
+    public static final int ENTRY_OVERHEAD = 128;
+
+    /**
+     * key : 片段
+     */
+    private final WeightedLru<Object, Fragment> fragments;
+
+    /**
+     * 已回收的对象引用
+     */
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    public JsonFragmentCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * 初始化
+     *
+     * @param maxBytes 最大字节数
+     */
+    public JsonFragmentCache(long maxBytes) {
+        AssertUtils.isPositive(maxBytes, "maxBytes");
+
+        this.fragments = new WeightedLru<>(maxBytes, fragment -> (long) fragment.value.length() + ENTRY_OVERHEAD);
+    }
+
+    /**
+     * 按对象引用缓存，src 须不可变
+     * 不持有 src 的强引用，src 回收后片段删除
+     *
+     * @param src the immutable object
+     * @return the {@link RawJson} instance, 序列化失败 return null
+     */
+    public RawJson get(Object src) {
+        AssertUtils.nonNull(src, "src");
+
+        Fragment fragment = fragments.get(new IdentityKey(src, null));
+        if (fragment != null) {
+            return fragment.value;
+        }
+
+        expunge();
+        return load(new IdentityKey(src, collected), 0L, src);
+    }
+
+    /**
+     * 按 key + 版本号缓存，版本号变化时重新序列化
+     *
+     * @param key     the key, 按 equals 比较，强引用
+     * @param version 版本号
+     * @param src     版本号变化时才调用
+     * @return the {@link RawJson} instance, 序列化失败 return null
+     */
+    public RawJson get(Object key, long version, Supplier<?> src) {
+        AssertUtils.nonNull(key, "key");
+        AssertUtils.nonNull(src, "src");
+
+        Fragment fragment = fragments.get(key);
+        if (fragment != null && fragment.version == version) {
+            return fragment.value;
+        }
+
+        expunge();
+        return load(key, version, src.get());
+    }
+
+    /**
+     * 清空
+     */
+    public void clear() {
+        fragments.clear();
+    }
+
+    /**
+     * 缓存的片段数
+     *
+     * @return size
+     */
+    public int size() {
+        return fragments.size();
+    }
+
+    /**
+     * 缓存的权重，片段字节数 + 每项的固定开销
+     *
+     * @return weight
+     */
+    public long getWeight() {
+        return fragments.getWeight();
+    }
+
+    public long getMaxBytes() {
+        return fragments.getMaxWeight();
+    }
+
+    public long getEvictions() {
+        return fragments.getEvictions();
+    }
+
+    /**
+     * 序列化，写入
+     */
+    private RawJson load(Object key, long version, Object src) {
+        byte[] json = JsonParser.toJsonBytes(src);
+        if (json == null) {
+            return null;
+        }
+
+        RawJson value = RawJson.wrap(json);
+        fragments.put(key, new Fragment(version, value));
+        return value;
+    }
+
+    /**
+     * 删除已回收对象的片段
+     */
+    private void expunge() {
+        Reference<?> ref;
+        while ((ref = collected.poll()) != null) {
+            fragments.remove(ref);
+        }
+    }
+
+    /**
+     * 片段
+     */
+    private static final class Fragment {
+        /**
+         * 版本号
+         */
+        private final long version;
+
+        /**
+         * 序列化结果
+         */
+        private final RawJson value;
+
+        Fragment(long version, RawJson value) {
+            this.version = version;
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * 按引用比较的弱引用 key
+     * 回收后只等于自身，从队列中取出后按自身删除
+     */
+    private static final class IdentityKey extends WeakReference<Object> {
+        /**
+         * 对象的 identityHashCode，回收后不变
+         */
+        private final int hash;
+
+        IdentityKey(Object ref, ReferenceQueue<Object> queue) {
+            super(ref, queue);
+            this.hash = System.identityHashCode(ref);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IdentityKey)) {
+                return false;
+            }
+
+            Object ref = get();
+            return ref != null && ref == ((IdentityKey) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
@@ -1,8 +1,17 @@
 package io.github.winter.boot.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import io.github.winter.boot.tuple.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.Date;
 import java.util.Map;
@@ -13,6 +22,9 @@ import java.util.Map;
  * @author changebooks@qq.com
  */
 public final class JsonMap {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonMap.class);
+
     /**
      * 值
      */
@@ -198,6 +210,245 @@ public final class JsonMap {
         return DATE_PARSER.fromJson(json);
     }
 
+    /**
+     * 长整数，不装箱
+     *
+     * @param src the map
+     * @return a json string
+     */
+    public static String writeLongMap(StringLongMap src) {
+        if (src == null) {
+            return null;
+        }
+
+        try {
+            StringWriter out = new StringWriter(src.size() * 16 + 2);
+            try (JsonGenerator generator = JsonParser.codec(Object.class).getWriter().createGenerator(out)) {
+                generator.writeStartObject();
+                src.forEach((key, value) -> writeField(generator, key, value));
+                generator.writeEndObject();
+            }
+            return out.toString();
+        } catch (Throwable ex) {
+            LOGGER.error("writeLongMap failed, writeNumber failed, throwable: ", ex);
+            return null;
+        }
+    }
+
+    /**
+     * 长整数，不装箱
+     * 跳过 null，数字字符串按数字解析
+     *
+     * @param json the json string
+     * @return a map
+     */
+    public static StringLongMap readLongMap(String json) {
+        if (Check.isEmpty(json)) {
+            return null;
+        }
+
+        ObjectReader reader = JsonParser.codec(Object.class).getReader();
+        try (com.fasterxml.jackson.core.JsonParser p = reader.createParser(json)) {
+            StringLongMap r = new StringLongMap();
+            readNumbers(p, false, (key, value) -> r.put(key, value));
+            return r;
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "readLongMap", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 长整数，不装箱
+     * 跳过 null，数字字符串按数字解析
+     *
+     * @param json the json bytes, UTF-8
+     * @return a map
+     */
+    public static StringLongMap readLongMap(byte[] json) {
+        if (json == null || json.length == 0) {
+            return null;
+        }
+
+        ObjectReader reader = JsonParser.codec(Object.class).getReader();
+        try (com.fasterxml.jackson.core.JsonParser p = reader.createParser(json)) {
+            StringLongMap r = new StringLongMap();
+            readNumbers(p, false, (key, value) -> r.put(key, value));
+            return r;
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "readLongMap", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 整数，不装箱
+     *
+     * @param src the map
+     * @return a json string
+     */
+    public static String writeIntMap(StringIntMap src) {
+        if (src == null) {
+            return null;
+        }
+
+        try {
+            StringWriter out = new StringWriter(src.size() * 12 + 2);
+            try (JsonGenerator generator = JsonParser.codec(Object.class).getWriter().createGenerator(out)) {
+                generator.writeStartObject();
+                src.forEach((key, value) -> writeField(generator, key, value));
+                generator.writeEndObject();
+            }
+            return out.toString();
+        } catch (Throwable ex) {
+            LOGGER.error("writeIntMap failed, writeNumber failed, throwable: ", ex);
+            return null;
+        }
+    }
+
+    /**
+     * 整数，不装箱
+     * 跳过 null，数字字符串按数字解析，超出 int 范围解析失败
+     *
+     * @param json the json string
+     * @return a map
+     */
+    public static StringIntMap readIntMap(String json) {
+        if (Check.isEmpty(json)) {
+            return null;
+        }
+
+        ObjectReader reader = JsonParser.codec(Object.class).getReader();
+        try (com.fasterxml.jackson.core.JsonParser p = reader.createParser(json)) {
+            StringIntMap r = new StringIntMap();
+            readNumbers(p, true, (key, value) -> r.put(key, (int) value));
+            return r;
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "readIntMap", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 整数，不装箱
+     * 跳过 null，数字字符串按数字解析，超出 int 范围解析失败
+     *
+     * @param json the json bytes, UTF-8
+     * @return a map
+     */
+    public static StringIntMap readIntMap(byte[] json) {
+        if (json == null || json.length == 0) {
+            return null;
+        }
+
+        ObjectReader reader = JsonParser.codec(Object.class).getReader();
+        try (com.fasterxml.jackson.core.JsonParser p = reader.createParser(json)) {
+            StringIntMap r = new StringIntMap();
+            readNumbers(p, true, (key, value) -> r.put(key, (int) value));
+            return r;
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "readIntMap", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 按需解析，只扫描顶层 key，读取时才解析 value
+     *
+     * @param json the json string
+     * @return a lazy map
+     */
+    public static LazyJsonMap readLazy(String json) {
+        if (Check.nonEmpty(json)) {
+            return LazyJsonMap.of(json);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * 按需解析，只扫描顶层 key，读取时才解析 value
+     *
+     * @param json the json bytes, UTF-8
+     * @return a lazy map
+     */
+    public static LazyJsonMap readLazy(byte[] json) {
+        if (json != null && json.length > 0) {
+            return LazyJsonMap.of(json);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * 流式读取 {"key": number, ...}
+     */
+    private static void readNumbers(com.fasterxml.jackson.core.JsonParser p, boolean isInt, NumberConsumer action) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(p, Map.class, "json must be an object");
+        }
+
+        JsonToken token;
+        while ((token = p.nextToken()) == JsonToken.FIELD_NAME) {
+            String key = p.currentName();
+            switch (p.nextToken()) {
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    action.accept(key, isInt ? p.getIntValue() : p.getLongValue());
+                    break;
+                case VALUE_STRING:
+                    action.accept(key, parseNumber(p, isInt));
+                    break;
+                case VALUE_NULL:
+                    break;
+                default:
+                    throw MismatchedInputException.from(p, isInt ? int.class : long.class,
+                            String.format("value of \"%s\" must be a number", key));
+            }
+        }
+
+        if (token != JsonToken.END_OBJECT) {
+            throw MismatchedInputException.from(p, Map.class, "json object not closed");
+        }
+    }
+
+    /**
+     * 数字字符串
+     */
+    private static long parseNumber(com.fasterxml.jackson.core.JsonParser p, boolean isInt) throws IOException {
+        String text = p.getText().trim();
+        try {
+            return isInt ? Integer.parseInt(text) : Long.parseLong(text);
+        } catch (NumberFormatException ex) {
+            throw MismatchedInputException.from(p, isInt ? int.class : long.class,
+                    String.format("\"%s\" is not a number", text));
+        }
+    }
+
+    /**
+     * 写 "key": number
+     */
+    private static void writeField(JsonGenerator generator, String key, long value) {
+        try {
+            generator.writeNumberField(key, value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * 读数字回调，不装箱
+     */
+    private interface NumberConsumer {
+        /**
+         * 回调
+         *
+         * @param key   the key
+         * @param value the value
+         */
+        void accept(String key, long value);
+    }
+
     /**
      * 执行解析
      *
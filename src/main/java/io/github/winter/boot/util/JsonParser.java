@@ -1,14 +1,34 @@
 package io.github.winter.boot.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 解析Json
@@ -29,13 +49,75 @@ public final class JsonParser {
      * Parser
      */
     private static final ObjectMapper PARSER = new ObjectMapper()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .registerModule(RecordCodec.MODULE);
 
     /**
      * Object Mapper Type Factory
      */
     private static final TypeFactory TYPE_FACTORY = PARSER.getTypeFactory();
 
+    /**
+     * 最多缓存的 {@link JsonCodec} 数量，超过后不再缓存，每次新建
+     */
+    public static final int MAX_CODEC_CACHE_SIZE = 1024;
+
+    /**
+     * 并行解析 NDJSON，每批的行数
+     */
+    public static final int PARALLEL_BATCH_SIZE = 1024;
+
+    /**
+     * NDJSON 行分隔符
+     */
+    public static final String LINE_SEPARATOR = "\n";
+
+    /**
+     * 解析失败时，日志中 Json 的最大长度，超出截断
+     */
+    public static final int MAX_LOGGED_JSON_LENGTH = 256;
+
+    /**
+     * 解析失败时，每秒最多记录的日志数，超出只计数
+     */
+    public static final int MAX_FAILURE_LOGS_PER_SECOND = 10;
+
+    /**
+     * 日志限流，当前秒
+     */
+    private static final AtomicLong LOG_SECOND = new AtomicLong();
+
+    /**
+     * 日志限流，当前秒已记录的日志数
+     */
+    private static final AtomicInteger LOG_COUNT = new AtomicInteger();
+
+    /**
+     * 日志限流，未记录的日志数
+     */
+    private static final LongAdder LOG_SUPPRESSED = new LongAdder();
+
+    /**
+     * Json 片段缓存
+     */
+    private static final JsonFragmentCache FRAGMENT_CACHE = new JsonFragmentCache();
+
+    /**
+     * Class / Type / JavaType : Codec
+     */
+    private static final Map<Type, JsonCodec<?>> CODECS = new ConcurrentHashMap<>();
+
+    /**
+     * Element Class : List Codec
+     */
+    private static final Map<Type, JsonCodec<?>> LIST_CODECS = new ConcurrentHashMap<>();
+
+    /**
+     * Stream Writer，不关闭 OutputStream
+     */
+    private static final ObjectWriter STREAM_WRITER = PARSER.writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     private JsonParser() {
     }
 
@@ -54,6 +136,74 @@ public final class JsonParser {
         }
     }
 
+    /**
+     * Convert Object to Json Bytes (UTF-8)
+     *
+     * @param src the object
+     * @return json bytes
+     */
+    public static byte[] toJsonBytes(Object src) {
+        try {
+            return PARSER.writeValueAsBytes(src);
+        } catch (Throwable ex) {
+            LOGGER.error("toJsonBytes failed, writeValueAsBytes failed, throwable: ", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Write Object to OutputStream (UTF-8)
+     * 不关闭 out
+     *
+     * @param src the object
+     * @param out the output stream
+     * @return written ? true : false
+     */
+    public static boolean writeJson(Object src, OutputStream out) {
+        try {
+            STREAM_WRITER.writeValue(out, src);
+            return true;
+        } catch (Throwable ex) {
+            LOGGER.error("writeJson failed, writeValue failed, throwable: ", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Convert Object to Raw Json，嵌入其它对象时原样写入
+     *
+     * @param src the object
+     * @return the {@link RawJson} instance
+     */
+    public static RawJson toRawJson(Object src) {
+        byte[] json = toJsonBytes(src);
+        return json != null ? RawJson.wrap(json) : null;
+    }
+
+    /**
+     * Convert Object to Raw Json，按对象引用缓存
+     * src 须不可变，同一对象只序列化一次
+     *
+     * @param src the immutable object
+     * @return the {@link RawJson} instance
+     */
+    public static RawJson cachedRawJson(Object src) {
+        return FRAGMENT_CACHE.get(src);
+    }
+
+    /**
+     * Convert Object to Raw Json，按 key + 版本号缓存
+     * 版本号不变时不调用 src
+     *
+     * @param key     the key
+     * @param version 版本号
+     * @param src     the object supplier
+     * @return the {@link RawJson} instance
+     */
+    public static RawJson cachedRawJson(Object key, long version, Supplier<?> src) {
+        return FRAGMENT_CACHE.get(key, version, src);
+    }
+
     /**
      * Convert Json String to Object
      *
@@ -64,9 +214,9 @@ public final class JsonParser {
      */
     public static <T> T fromJson(String json, final Class<T> classOfT) {
         try {
-            return PARSER.readValue(json, classOfT);
+            return codec(classOfT).getReader().readValue(json);
         } catch (Throwable ex) {
-            LOGGER.error("fromJson failed, readValue failed, json: {}, throwable: ", json, ex);
+            logFailure(LOGGER, "fromJson", json, ex);
             return null;
         }
     }
@@ -81,9 +231,115 @@ public final class JsonParser {
      */
     public static <T> T fromJson(String json, final TypeReference<T> typeOfT) {
         try {
-            return PARSER.readValue(json, typeOfT);
+            return codec(typeOfT).getReader().readValue(json);
         } catch (Throwable ex) {
-            LOGGER.error("fromJson failed, readValue failed, json: {}, throwable: ", json, ex);
+            logFailure(LOGGER, "fromJson", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Json Bytes to Object
+     *
+     * @param json     the json bytes, UTF-8 / UTF-16 / UTF-32
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return an object of type T from the bytes
+     */
+    public static <T> T fromJson(byte[] json, final Class<T> classOfT) {
+        try {
+            return codec(classOfT).getReader().readValue(json);
+        } catch (Throwable ex) {
+            logFailure(LOGGER, "fromJson", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Json Bytes to Object
+     *
+     * @param json    the json bytes, UTF-8 / UTF-16 / UTF-32
+     * @param typeOfT new TypeReference&lt;Collection&lt;Foo&gt;&gt;()
+     * @param <T>     the type of the desired object
+     * @return an object of type T from the bytes
+     */
+    public static <T> T fromJson(byte[] json, final TypeReference<T> typeOfT) {
+        try {
+            return codec(typeOfT).getReader().readValue(json);
+        } catch (Throwable ex) {
+            logFailure(LOGGER, "fromJson", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Json Bytes to Object
+     * 读 position 到 limit 之间的字节，不改变 position
+     *
+     * @param json     the json bytes, UTF-8 / UTF-16 / UTF-32
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return an object of type T from the bytes
+     */
+    public static <T> T fromJson(ByteBuffer json, final Class<T> classOfT) {
+        try {
+            return readValue(json, codec(classOfT).getReader());
+        } catch (Throwable ex) {
+            logFailure(LOGGER, "fromJson", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Json Bytes to Object
+     * 读 position 到 limit 之间的字节，不改变 position
+     *
+     * @param json    the json bytes, UTF-8 / UTF-16 / UTF-32
+     * @param typeOfT new TypeReference&lt;Collection&lt;Foo&gt;&gt;()
+     * @param <T>     the type of the desired object
+     * @return an object of type T from the bytes
+     */
+    public static <T> T fromJson(ByteBuffer json, final TypeReference<T> typeOfT) {
+        try {
+            return readValue(json, codec(typeOfT).getReader());
+        } catch (Throwable ex) {
+            logFailure(LOGGER, "fromJson", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Json InputStream to Object
+     * 不关闭 in
+     *
+     * @param in       the json input stream, UTF-8 / UTF-16 / UTF-32
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return an object of type T from the stream
+     */
+    public static <T> T fromJson(InputStream in, final Class<T> classOfT) {
+        try {
+            return codec(classOfT).getReader().readValue(in);
+        } catch (Throwable ex) {
+            logFailure(LOGGER, "fromJson", in, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Convert Json InputStream to Object
+     * 不关闭 in
+     *
+     * @param in      the json input stream, UTF-8 / UTF-16 / UTF-32
+     * @param typeOfT new TypeReference&lt;Collection&lt;Foo&gt;&gt;()
+     * @param <T>     the type of the desired object
+     * @return an object of type T from the stream
+     */
+    public static <T> T fromJson(InputStream in, final TypeReference<T> typeOfT) {
+        try {
+            return codec(typeOfT).getReader().readValue(in);
+        } catch (Throwable ex) {
+            logFailure(LOGGER, "fromJson", in, ex);
             return null;
         }
     }
@@ -97,8 +353,12 @@ public final class JsonParser {
      * @return object list of type T from the string
      */
     public static <T> List<T> fromList(String json, final Class<T> classOfT) {
-        CollectionType listType = TYPE_FACTORY.constructCollectionType(List.class, classOfT);
-        return fromList(json, listType);
+        try {
+            return listCodec(classOfT).getReader().readValue(json);
+        } catch (Throwable ex) {
+            logFailure(LOGGER, "fromList", json, ex);
+            return null;
+        }
     }
 
     /**
@@ -111,11 +371,438 @@ public final class JsonParser {
      */
     public static <T> List<T> fromList(String json, final CollectionType listType) {
         try {
-            return PARSER.readValue(json, listType);
+            return JsonParser.<List<T>>codec(listType).getReader().readValue(json);
         } catch (Throwable ex) {
-            LOGGER.error("fromList failed, readValue failed, json: {}, throwable: ", json, ex);
+            logFailure(LOGGER, "fromList", json, ex);
             return null;
         }
     }
 
+    /**
+     * Convert Json String to Object，返回值或错误，不记录日志
+     *
+     * @param json     the json string
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return a result
+     */
+    public static <T> JsonResult<T> tryFromJson(String json, final Class<T> classOfT) {
+        try {
+            return JsonResult.ok(codec(classOfT).getReader().readValue(json));
+        } catch (Throwable ex) {
+            return JsonResult.fail(ex);
+        }
+    }
+
+    /**
+     * Convert Json String to Object，返回值或错误，不记录日志
+     *
+     * @param json    the json string
+     * @param typeOfT new TypeReference&lt;Collection&lt;Foo&gt;&gt;()
+     * @param <T>     the type of the desired object
+     * @return a result
+     */
+    public static <T> JsonResult<T> tryFromJson(String json, final TypeReference<T> typeOfT) {
+        try {
+            return JsonResult.ok(codec(typeOfT).getReader().readValue(json));
+        } catch (Throwable ex) {
+            return JsonResult.fail(ex);
+        }
+    }
+
+    /**
+     * Convert Json Bytes to Object，返回值或错误，不记录日志
+     *
+     * @param json     the json bytes, UTF-8 / UTF-16 / UTF-32
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return a result
+     */
+    public static <T> JsonResult<T> tryFromJson(byte[] json, final Class<T> classOfT) {
+        try {
+            return JsonResult.ok(codec(classOfT).getReader().readValue(json));
+        } catch (Throwable ex) {
+            return JsonResult.fail(ex);
+        }
+    }
+
+    /**
+     * Convert Json Bytes to Object，返回值或错误，不记录日志
+     *
+     * @param json    the json bytes, UTF-8 / UTF-16 / UTF-32
+     * @param typeOfT new TypeReference&lt;Collection&lt;Foo&gt;&gt;()
+     * @param <T>     the type of the desired object
+     * @return a result
+     */
+    public static <T> JsonResult<T> tryFromJson(byte[] json, final TypeReference<T> typeOfT) {
+        try {
+            return JsonResult.ok(codec(typeOfT).getReader().readValue(json));
+        } catch (Throwable ex) {
+            return JsonResult.fail(ex);
+        }
+    }
+
+    /**
+     * Convert Json String to Object List，返回值或错误，不记录日志
+     *
+     * @param json     the json string
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return a result
+     */
+    public static <T> JsonResult<List<T>> tryFromList(String json, final Class<T> classOfT) {
+        try {
+            return JsonResult.ok(listCodec(classOfT).getReader().readValue(json));
+        } catch (Throwable ex) {
+            return JsonResult.fail(ex);
+        }
+    }
+
+    /**
+     * 按 Json Pointer 提取，不完整解析
+     *
+     * @param json     the json string
+     * @param pointers eg: "/order/customer/id", "/items/0/sku"
+     * @return the result, 按 pointers 的下标读取
+     */
+    public static JsonExtract extract(String json, String... pointers) {
+        return JsonExtract.of(json, pointers);
+    }
+
+    /**
+     * 按 Json Pointer 提取，不完整解析
+     *
+     * @param json     the json bytes, UTF-8
+     * @param pointers eg: "/order/customer/id", "/items/0/sku"
+     * @return the result, 按 pointers 的下标读取
+     */
+    public static JsonExtract extract(byte[] json, String... pointers) {
+        return JsonExtract.of(json, pointers);
+    }
+
+    /**
+     * 逐个读取，不整体加载
+     * 输入是顶层 Json 数组时读数组元素，否则读空白分隔的多个 Json（NDJSON）
+     * 用完需关闭，关闭时不关闭 in
+     *
+     * @param in       the json input stream, UTF-8 / UTF-16 / UTF-32
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return an iterator, hasNext / next 失败抛 {@link RuntimeException}
+     * @throws IOException 读失败
+     */
+    public static <T> MappingIterator<T> readValues(InputStream in, final Class<T> classOfT) throws IOException {
+        AssertUtils.nonNull(in, "in");
+
+        return codec(classOfT).getReader().readValues(in);
+    }
+
+    /**
+     * 逐个读取，不整体加载
+     * 输入是顶层 Json 数组时读数组元素，否则读空白分隔的多个 Json（NDJSON）
+     * 用完需关闭 Stream，关闭时不关闭 in
+     *
+     * @param in       the json input stream, UTF-8 / UTF-16 / UTF-32
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return a sequential stream, 读失败抛 {@link RuntimeException}
+     * @throws IOException 读失败
+     */
+    public static <T> Stream<T> stream(InputStream in, final Class<T> classOfT) throws IOException {
+        MappingIterator<T> iterator = readValues(in, classOfT);
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                iterator.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * 逐个读取，逐个回调，不整体加载
+     * 输入是顶层 Json 数组时读数组元素，否则读空白分隔的多个 Json（NDJSON）
+     * 不关闭 in
+     *
+     * @param in       the json input stream, UTF-8 / UTF-16 / UTF-32
+     * @param classOfT the class of T
+     * @param action   回调
+     * @param <T>      the type of the desired object
+     * @return 读取的数量
+     * @throws IOException 读失败
+     */
+    public static <T> long forEach(InputStream in, final Class<T> classOfT, Consumer<? super T> action) throws IOException {
+        AssertUtils.nonNull(action, "action");
+
+        long r = 0;
+        try (MappingIterator<T> iterator = readValues(in, classOfT)) {
+            while (iterator.hasNextValue()) {
+                action.accept(iterator.nextValue());
+                r++;
+            }
+        }
+
+        return r;
+    }
+
+    /**
+     * 并行解析 NDJSON，逐个回调
+     * 每次读 {@link #PARALLEL_BATCH_SIZE} 行，在 ForkJoinPool 中并行解析，内存有界
+     * 回调在多个线程中执行，不保证顺序，action 须线程安全
+     * 跳过空行，不关闭 in
+     *
+     * @param in       the ndjson input stream, UTF-8
+     * @param classOfT the class of T
+     * @param action   回调，线程安全
+     * @param <T>      the type of the desired object
+     * @return 读取的数量
+     * @throws IOException 读失败
+     */
+    public static <T> long forEachLineParallel(InputStream in, final Class<T> classOfT, Consumer<? super T> action) throws IOException {
+        AssertUtils.nonNull(in, "in");
+        AssertUtils.nonNull(action, "action");
+
+        ObjectReader reader = codec(classOfT).getReader();
+        BufferedReader lineReader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        long r = 0;
+        List<String> batch = new ArrayList<>(PARALLEL_BATCH_SIZE);
+        String line;
+        while (true) {
+            line = lineReader.readLine();
+            if (line != null && !line.isBlank()) {
+                batch.add(line);
+            }
+
+            if (batch.size() >= PARALLEL_BATCH_SIZE || (line == null && !batch.isEmpty())) {
+                batch.parallelStream().forEach(x -> {
+                    try {
+                        action.accept(reader.readValue(x));
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+
+                r += batch.size();
+                batch.clear();
+            }
+
+            if (line == null) {
+                return r;
+            }
+        }
+    }
+
+    /**
+     * 逐个写入 Json 数组
+     * 关闭时写入 "]"，不关闭 out
+     *
+     * @param out the output stream
+     * @return a sequence writer
+     * @throws IOException 写失败
+     */
+    public static SequenceWriter arrayWriter(OutputStream out) throws IOException {
+        AssertUtils.nonNull(out, "out");
+
+        return STREAM_WRITER.writeValuesAsArray(out);
+    }
+
+    /**
+     * 逐个写入 NDJSON，每个 Json 一行
+     * 不关闭 out
+     *
+     * @param out the output stream
+     * @return a sequence writer
+     * @throws IOException 写失败
+     */
+    public static SequenceWriter lineWriter(OutputStream out) throws IOException {
+        AssertUtils.nonNull(out, "out");
+
+        return STREAM_WRITER.withRootValueSeparator(LINE_SEPARATOR).writeValues(out);
+    }
+
+    /**
+     * Codec，按 Class 缓存
+     *
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return the {@link JsonCodec} instance
+     */
+    public static <T> JsonCodec<T> codec(final Class<T> classOfT) {
+        AssertUtils.nonNull(classOfT, "classOfT");
+
+        return getCodec(CODECS, classOfT, TYPE_FACTORY::constructType);
+    }
+
+    /**
+     * Codec，按 Type 缓存
+     *
+     * @param typeOfT new TypeReference&lt;Collection&lt;Foo&gt;&gt;()
+     * @param <T>     the type of the desired object
+     * @return the {@link JsonCodec} instance
+     */
+    public static <T> JsonCodec<T> codec(final TypeReference<T> typeOfT) {
+        AssertUtils.nonNull(typeOfT, "typeOfT");
+
+        return getCodec(CODECS, typeOfT.getType(), TYPE_FACTORY::constructType);
+    }
+
+    /**
+     * Codec，按 JavaType 缓存
+     *
+     * @param type the java type, eg: {@link CollectionType}
+     * @param <T>  the type of the desired object
+     * @return the {@link JsonCodec} instance
+     */
+    public static <T> JsonCodec<T> codec(final JavaType type) {
+        AssertUtils.nonNull(type, "type");
+
+        return getCodec(CODECS, type, t -> (JavaType) t);
+    }
+
+    /**
+     * List Codec，按元素 Class 缓存
+     *
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return the {@link JsonCodec} instance
+     */
+    public static <T> JsonCodec<List<T>> listCodec(final Class<T> classOfT) {
+        AssertUtils.nonNull(classOfT, "classOfT");
+
+        return getCodec(LIST_CODECS, classOfT, t -> TYPE_FACTORY.constructCollectionType(List.class, classOfT));
+    }
+
+    /**
+     * 注册 Record，不用反射读写，按组件名读写，不支持 Jackson 注解
+     * 注册时生成访问器、解析序列化器并预热，须在首次使用该类型之前注册
+     *
+     * @param recordClass the record class
+     * @param <R>         the record type
+     * @return the {@link JsonCodec} instance
+     */
+    public static <R extends Record> JsonCodec<R> registerRecord(final Class<R> recordClass) {
+        RecordCodec.register(recordClass, TYPE_FACTORY);
+
+        JsonCodec<R> codec = newCodec(TYPE_FACTORY.constructType(recordClass));
+        CODECS.put(recordClass, codec);
+        warmUp(codec);
+        return codec;
+    }
+
+    /**
+     * 取缓存的 Codec，没有则新建
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> JsonCodec<T> getCodec(Map<Type, JsonCodec<?>> cache, Type key, Function<Type, JavaType> resolver) {
+        JsonCodec<?> codec = cache.get(key);
+        if (codec != null) {
+            return (JsonCodec<T>) codec;
+        }
+
+        codec = newCodec(resolver.apply(key));
+        if (cache.size() < MAX_CODEC_CACHE_SIZE) {
+            JsonCodec<?> previous = cache.putIfAbsent(key, codec);
+            if (previous != null) {
+                return (JsonCodec<T>) previous;
+            }
+        }
+
+        return (JsonCodec<T>) codec;
+    }
+
+    /**
+     * 新建 Codec
+     * final 类型用 writerFor 预先解析，其它类型按运行时类型序列化，避免丢失子类字段
+     */
+    private static <T> JsonCodec<T> newCodec(JavaType type) {
+        ObjectReader reader = PARSER.readerFor(type)
+                .without(com.fasterxml.jackson.core.JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        ObjectWriter writer = (type.isFinal() ? PARSER.writerFor(type) : PARSER.writer())
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return new JsonCodec<>(type, reader, writer);
+    }
+
+    /**
+     * 预热，反序列化空对象再序列化，构造器校验失败时忽略
+     */
+    private static <T> void warmUp(JsonCodec<T> codec) {
+        try {
+            T value = codec.getReader().readValue("{}");
+            codec.getWriter().writeValueAsBytes(value);
+        } catch (Throwable ignored) {
+        }
+    }
+
+    /**
+     * 读 ByteBuffer，有底层数组时直接读数组，否则包装成 InputStream
+     */
+    private static <T> T readValue(ByteBuffer json, ObjectReader reader) throws IOException {
+        if (json.hasArray()) {
+            return reader.readValue(json.array(), json.arrayOffset() + json.position(), json.remaining());
+        } else {
+            return reader.readValue(new ByteBufferBackedInputStream(json.duplicate()));
+        }
+    }
+
+    /**
+     * 解析失败，按类型计数，限流记录日志
+     * 日志中的 Json 截断到 {@link #MAX_LOGGED_JSON_LENGTH}，不打印堆栈
+     *
+     * @param logger  the logger
+     * @param method  方法名
+     * @param payload the json, String / byte[] / ByteBuffer / InputStream
+     * @param ex      the throwable
+     */
+    static void logFailure(Logger logger, String method, Object payload, Throwable ex) {
+        JsonFailure failure = JsonFailure.record(ex);
+        if (!tryAcquireLog()) {
+            LOG_SUPPRESSED.increment();
+            return;
+        }
+
+        logger.error("{} failed, readValue failed, failure: {}, json: {}, suppressed: {}, error: {}",
+                method, failure, abbreviate(payload), LOG_SUPPRESSED.sumThenReset(), String.valueOf(ex));
+    }
+
+    /**
+     * 日志限流，每秒最多 {@link #MAX_FAILURE_LOGS_PER_SECOND} 条
+     */
+    private static boolean tryAcquireLog() {
+        long second = CoarseClock.currentTimeMillis() / 1000L;
+        long previous = LOG_SECOND.get();
+        if (previous != second && LOG_SECOND.compareAndSet(previous, second)) {
+            LOG_COUNT.set(0);
+        }
+
+        return LOG_COUNT.incrementAndGet() <= MAX_FAILURE_LOGS_PER_SECOND;
+    }
+
+    /**
+     * 截断 Json，用于日志
+     */
+    private static String abbreviate(Object payload) {
+        if (payload instanceof String) {
+            String json = (String) payload;
+            if (json.length() <= MAX_LOGGED_JSON_LENGTH) {
+                return json;
+            }
+
+            return json.substring(0, MAX_LOGGED_JSON_LENGTH) + "...(" + json.length() + " chars)";
+        } else if (payload instanceof byte[]) {
+            byte[] json = (byte[]) payload;
+            int len = Math.min(json.length, MAX_LOGGED_JSON_LENGTH);
+            String r = new String(json, 0, len, StandardCharsets.UTF_8);
+            return json.length <= len ? r : r + "...(" + json.length + " bytes)";
+        } else if (payload instanceof ByteBuffer) {
+            return "(" + ((ByteBuffer) payload).remaining() + " bytes)";
+        } else if (payload instanceof InputStream) {
+            return "(stream)";
+        } else {
+            return String.valueOf(payload);
+        }
+    }
+
 }
@@ -0,0 +1,87 @@
+package io.github.winter.boot.util;
+
+/**
+ * 解析Json的结果，值或错误
+ * 不记录日志，由调用方处理错误
+ *
+ * @param <T> the type of the desired object
+ * @author changebooks@qq.com
+ */
+public final class JsonResult<T> {
+    /**
+     * 值
+     */
+    private final T value;
+
+    /**
+     * 失败的类型，成功 null
+     */
+    private final JsonFailure failure;
+
+    /**
+     * 错误，成功 null
+     */
+    private final Throwable error;
+
+    private JsonResult(T value, JsonFailure failure, Throwable error) {
+        this.value = value;
+        this.failure = failure;
+        this.error = error;
+    }
+
+    /**
+     * 成功
+     *
+     * @param value the value
+     * @param <T>   the type of the desired object
+     * @return a result
+     */
+    public static <T> JsonResult<T> ok(T value) {
+        return new JsonResult<>(value, null, null);
+    }
+
+    /**
+     * 失败，按类型计数
+     *
+     * @param error the throwable
+     * @param <T>   the type of the desired object
+     * @return a result
+     */
+    public static <T> JsonResult<T> fail(Throwable error) {
+        AssertUtils.nonNull(error, "error");
+
+        return new JsonResult<>(null, JsonFailure.record(error), error);
+    }
+
+    /**
+     * 成功？
+     *
+     * @return ok ? true : false
+     */
+    public boolean isOk() {
+        return failure == null;
+    }
+
+    /**
+     * 值，失败返回 other
+     *
+     * @param other the default value
+     * @return the value or other
+     */
+    public T orElse(T other) {
+        return isOk() ? value : other;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public JsonFailure getFailure() {
+        return failure;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+}
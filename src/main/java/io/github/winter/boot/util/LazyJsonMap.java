@@ -0,0 +1,266 @@
+package io.github.winter.boot.util;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 解析Json对象，按需解析
+ * 扫描一次，只记录顶层 key 和 value 的位置，读取时才解析 value
+ * 不可变，线程安全，通过 {@link JsonMap#readLazy(String)} 获取
+ *
+ * @author changebooks@qq.com
+ */
+public final class LazyJsonMap {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LazyJsonMap.class);
+
+    /**
+     * 对象 Map 类型
+     */
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * Json 字节，与 text 二选一
+     */
+    private final byte[] bytes;
+
+    /**
+     * Json 字符串，与 bytes 二选一
+     */
+    private final String text;
+
+    /**
+     * key : 下标
+     */
+    private final Map<String, Integer> index;
+
+    /**
+     * value 起始位置
+     */
+    private final int[] starts;
+
+    /**
+     * value 结束位置（不含）
+     */
+    private final int[] ends;
+
+    private LazyJsonMap(byte[] bytes, String text, Map<String, Integer> index, int[] starts, int[] ends) {
+        this.bytes = bytes;
+        this.text = text;
+        this.index = index;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * 扫描 Json 对象
+     *
+     * @param json the json string
+     * @return a lazy map, json 不是对象或格式错误 return null
+     */
+    static LazyJsonMap of(String json) {
+        try (com.fasterxml.jackson.core.JsonParser p = JsonParser.codec(Object.class).getReader().createParser(json)) {
+            return scan(p, null, json);
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "readLazy", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 扫描 Json 对象
+     *
+     * @param json the json bytes, UTF-8
+     * @return a lazy map, json 不是对象或格式错误 return null
+     */
+    static LazyJsonMap of(byte[] json) {
+        try (com.fasterxml.jackson.core.JsonParser p = JsonParser.codec(Object.class).getReader().createParser(json)) {
+            return scan(p, json, null);
+        } catch (Throwable ex) {
+            JsonParser.logFailure(LOGGER, "readLazy", json, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 扫描顶层 key，跳过 value 的内容
+     * value 的结束位置取下一个 token 的开始位置，去掉尾部的空白和逗号
+     */
+    private static LazyJsonMap scan(com.fasterxml.jackson.core.JsonParser p, byte[] bytes, String text) throws IOException {
+        Assert.checkArgument(p.nextToken() == JsonToken.START_OBJECT, "json must be an object");
+
+        Map<String, Integer> index = new HashMap<>();
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int size = 0;
+
+        JsonToken token = p.nextToken();
+        while (token == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            p.nextToken();
+            int start = offset(p.currentTokenLocation());
+            p.skipChildren();
+
+            token = p.nextToken();
+            int end = offset(p.currentTokenLocation());
+            while (end > start && isTrailing(bytes != null ? bytes[end - 1] : text.charAt(end - 1))) {
+                end--;
+            }
+
+            Integer previous = index.get(name);
+            if (previous != null) {
+                starts[previous] = start;
+                ends[previous] = end;
+                continue;
+            }
+
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size << 1);
+                ends = Arrays.copyOf(ends, size << 1);
+            }
+
+            index.put(name, size);
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        Assert.checkArgument(token == JsonToken.END_OBJECT, "json object not closed");
+
+        return new LazyJsonMap(bytes, text, index, starts, ends);
+    }
+
+    /**
+     * 字节输入取字节位置，字符输入取字符位置
+     */
+    private static int offset(JsonLocation location) {
+        long offset = location.getByteOffset() >= 0 ? location.getByteOffset() : location.getCharOffset();
+        return (int) offset;
+    }
+
+    /**
+     * 空白或逗号？
+     */
+    private static boolean isTrailing(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == ',';
+    }
+
+    /**
+     * 包含 key？
+     *
+     * @param key the key
+     * @return contains ? true : false
+     */
+    public boolean containsKey(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * 顶层 key，无序
+     *
+     * @return key set
+     */
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    /**
+     * 顶层 key 数量
+     *
+     * @return size
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * 解析 value
+     *
+     * @param key the key
+     * @return Map / List / String / Number / Boolean / null, key 不存在 return null
+     */
+    public Object get(String key) {
+        return get(key, Object.class);
+    }
+
+    /**
+     * 解析 value
+     *
+     * @param key      the key
+     * @param classOfT the class of T
+     * @param <T>      the type of the desired object
+     * @return an object of type T, key 不存在 return null
+     */
+    public <T> T get(String key, final Class<T> classOfT) {
+        return decode(key, JsonParser.codec(classOfT));
+    }
+
+    /**
+     * 解析 value
+     *
+     * @param key     the key
+     * @param typeOfT new TypeReference&lt;Collection&lt;Foo&gt;&gt;()
+     * @param <T>     the type of the desired object
+     * @return an object of type T, key 不存在 return null
+     */
+    public <T> T get(String key, final TypeReference<T> typeOfT) {
+        return decode(key, JsonParser.codec(typeOfT));
+    }
+
+    /**
+     * 原始 Json，不解析
+     *
+     * @param key the key
+     * @return a json string, key 不存在 return null
+     */
+    public String getRaw(String key) {
+        Integer i = index.get(key);
+        if (i == null) {
+            return null;
+        }
+
+        if (bytes != null) {
+            return new String(bytes, starts[i], ends[i] - starts[i], StandardCharsets.UTF_8);
+        } else {
+            return text.substring(starts[i], ends[i]);
+        }
+    }
+
+    /**
+     * 完整解析
+     *
+     * @return a map
+     */
+    public Map<String, Object> toMap() {
+        if (bytes != null) {
+            return JsonParser.fromJson(bytes, MAP_TYPE);
+        } else {
+            return JsonParser.fromJson(text, MAP_TYPE);
+        }
+    }
+
+    /**
+     * 解析 value
+     */
+    private <T> T decode(String key, JsonCodec<T> codec) {
+        Integer i = index.get(key);
+        if (i == null) {
+            return null;
+        }
+
+        if (bytes != null) {
+            return codec.fromJson(bytes, starts[i], ends[i] - starts[i]);
+        } else {
+            return codec.fromJson(text.substring(starts[i], ends[i]));
+        }
+    }
+
+}
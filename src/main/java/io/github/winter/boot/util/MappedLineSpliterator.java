@@ -0,0 +1,282 @@
+package io.github.winter.boot.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 按行分割内存映射的文件，可并行
+ * 按换行符对齐拆分成段，每段按需映射，超过 {@link #MAX_MAP_SIZE} 时分块映射
+ * 行分隔符 "\n"、"\r\n"，不含分隔符，通过 {@link FileUtils#parallelLines(java.nio.file.Path, Charset)} 获取
+ *
+ * @param <T> 行的类型
+ * @author changebooks@qq.com
+ */
+abstract class MappedLineSpliterator<T> implements Spliterator<T> {
+    /**
+     * 每块最大的映射字节数
+     */
+    static final int MAX_MAP_SIZE = 1 << 30;
+
+    /**
+     * 小于 2 倍时不再拆分
+     */
+    static final long MIN_SPLIT_SIZE = 1L << 20;
+
+    /**
+     * 拆分时查找换行符，每次读的字节数
+     */
+    private static final int PROBE_SIZE = 8 * 1024;
+
+    /**
+     * 文件
+     */
+    final FileChannel channel;
+
+    /**
+     * 未映射部分的起始位置，段内第一行的开头
+     */
+    private long position;
+
+    /**
+     * 段的结束位置（不含）
+     */
+    private final long end;
+
+    /**
+     * 当前块
+     */
+    private MappedByteBuffer chunk;
+
+    /**
+     * 当前块中下一行的开头
+     */
+    private int chunkPosition;
+
+    /**
+     * 当前块中最后一个完整行的结尾（不含）
+     */
+    private int chunkLimit;
+
+    MappedLineSpliterator(FileChannel channel, long start, long end) {
+        this.channel = channel;
+        this.position = start;
+        this.end = end;
+    }
+
+    /**
+     * 行解码为字符串
+     *
+     * @param channel 文件
+     * @param charset 字符集，须兼容 ASCII 换行符
+     * @param size    文件大小
+     * @return the spliterator
+     */
+    static MappedLineSpliterator<String> ofStrings(FileChannel channel, Charset charset, long size) {
+        return new Strings(channel, 0L, size, charset);
+    }
+
+    /**
+     * 行是映射缓冲的只读切片，不复制
+     *
+     * @param channel 文件
+     * @param size    文件大小
+     * @return the spliterator
+     */
+    static MappedLineSpliterator<ByteBuffer> ofSlices(FileChannel channel, long size) {
+        return new Slices(channel, 0L, size);
+    }
+
+    /**
+     * 取行
+     *
+     * @param buf  当前块
+     * @param from 行的开头
+     * @param to   行的结尾（不含）
+     * @return the line
+     */
+    abstract T toLine(MappedByteBuffer buf, int from, int to);
+
+    /**
+     * 新建同类型的段
+     */
+    abstract MappedLineSpliterator<T> newSegment(long start, long end);
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if ((chunk == null || chunkPosition >= chunkLimit) && !nextChunk()) {
+            return false;
+        }
+
+        int from = chunkPosition;
+        int to = from;
+        while (to < chunkLimit && chunk.get(to) != '\n') {
+            to++;
+        }
+        chunkPosition = to + 1;
+
+        if (to > from && chunk.get(to - 1) == '\r') {
+            to--;
+        }
+
+        action.accept(toLine(chunk, from, to));
+        return true;
+    }
+
+    /**
+     * 从换行符处对半拆分，返回前半段
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+        if (chunk != null || end - position < MIN_SPLIT_SIZE << 1) {
+            return null;
+        }
+
+        long newline = indexOfNewline(position + ((end - position) >>> 1));
+        if (newline < 0 || newline + 1 >= end) {
+            return null;
+        }
+
+        MappedLineSpliterator<T> prefix = newSegment(position, newline + 1);
+        position = newline + 1;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        long remaining = end - position;
+        return chunk != null ? remaining + Math.max(0, chunkLimit - chunkPosition) : remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * 映射下一块，块以换行符结尾，最后一块除外
+     *
+     * @return 还有 ? true : false
+     */
+    private boolean nextChunk() {
+        if (position >= end) {
+            chunk = null;
+            return false;
+        }
+
+        int size = (int) Math.min(end - position, MAX_MAP_SIZE);
+        try {
+            chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        int limit = size;
+        if (position + size < end) {
+            while (limit > 0 && chunk.get(limit - 1) != '\n') {
+                limit--;
+            }
+            Assert.checkState(limit > 0, String.format("line too long, max: %d, position: %d", MAX_MAP_SIZE, position));
+        }
+
+        position += limit;
+        chunkPosition = 0;
+        chunkLimit = limit;
+        return true;
+    }
+
+    /**
+     * from 之后第一个换行符的位置，不映射，按位置读
+     *
+     * @return position, 段内没有 return -1
+     */
+    private long indexOfNewline(long from) {
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        long offset = from;
+        try {
+            while (offset < end) {
+                probe.clear();
+                probe.limit((int) Math.min(PROBE_SIZE, end - offset));
+                int num = channel.read(probe, offset);
+                if (num <= 0) {
+                    return -1L;
+                }
+
+                for (int i = 0; i < num; i++) {
+                    if (probe.get(i) == '\n') {
+                        return offset + i;
+                    }
+                }
+                offset += num;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return -1L;
+    }
+
+    /**
+     * 行解码为字符串，复用字节缓冲
+     */
+    private static final class Strings extends MappedLineSpliterator<String> {
+        /**
+         * 字符集
+         */
+        private final Charset charset;
+
+        /**
+         * 复制行的缓冲，按需扩容
+         */
+        private byte[] scratch = new byte[256];
+
+        Strings(FileChannel channel, long start, long end, Charset charset) {
+            super(channel, start, end);
+            this.charset = charset;
+        }
+
+        @Override
+        String toLine(MappedByteBuffer buf, int from, int to) {
+            int length = to - from;
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length << 1)];
+            }
+
+            buf.get(from, scratch, 0, length);
+            return new String(scratch, 0, length, charset);
+        }
+
+        @Override
+        MappedLineSpliterator<String> newSegment(long start, long end) {
+            return new Strings(channel, start, end, charset);
+        }
+
+    }
+
+    /**
+     * 行是映射缓冲的切片
+     */
+    private static final class Slices extends MappedLineSpliterator<ByteBuffer> {
+
+        Slices(FileChannel channel, long start, long end) {
+            super(channel, start, end);
+        }
+
+        @Override
+        ByteBuffer toLine(MappedByteBuffer buf, int from, int to) {
+            return buf.slice(from, to - from);
+        }
+
+        @Override
+        MappedLineSpliterator<ByteBuffer> newSegment(long start, long end) {
+            return new Slices(channel, start, end);
+        }
+
+    }
+
+}
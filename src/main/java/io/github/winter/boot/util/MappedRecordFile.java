@@ -0,0 +1,379 @@
+package io.github.winter.boot.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 内存映射的定长记录文件，按下标随机读写
+ * 文件按区域映射，每个区域是记录大小的整数倍，记录不跨区域，支持超过 2G 的文件
+ * 数据在堆外，打开时不加载；小端字节序
+ * 读写不加锁，同一记录的并发写由调用方协调；grow 与读写可并发
+ * 用完须关闭，映射在 GC 回收后释放
+ * 用 MappedByteBuffer 而不是 MemorySegment：FFM API 在 Java 21 是预览特性，Java 22 才正式发布
+ *
+ * @author changebooks@qq.com
+ */
+public final class MappedRecordFile implements Closeable {
+    /**
+     * 每个区域的最大字节数
+     */
+    public static final int MAX_REGION_SIZE = 1 << 30;
+
+    /**
+     * 字节序
+     */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * 文件
+     */
+    private final Path path;
+
+    /**
+     * 文件
+     */
+    private final FileChannel channel;
+
+    /**
+     * 只读？
+     */
+    private final boolean readOnly;
+
+    /**
+     * 记录的字节数
+     */
+    private final int recordSize;
+
+    /**
+     * 每个区域的记录数
+     */
+    private final int regionRecords;
+
+    /**
+     * 区域，grow 时整体替换
+     */
+    private volatile MappedByteBuffer[] regions;
+
+    /**
+     * 记录数
+     */
+    private volatile long capacity;
+
+    private MappedRecordFile(Path path, FileChannel channel, boolean readOnly, int recordSize) {
+        this.path = path;
+        this.channel = channel;
+        this.readOnly = readOnly;
+        this.recordSize = recordSize;
+        this.regionRecords = MAX_REGION_SIZE / recordSize;
+        this.regions = new MappedByteBuffer[0];
+    }
+
+    /**
+     * 读写打开，文件不存在时创建，小于 capacity 条记录时扩展
+     *
+     * @param path       文件
+     * @param recordSize 记录的字节数
+     * @param capacity   最少的记录数
+     * @return the {@link MappedRecordFile} instance
+     * @throws IOException 打开失败
+     */
+    public static MappedRecordFile open(Path path, int recordSize, long capacity) throws IOException {
+        AssertUtils.nonNull(path, "path");
+        AssertUtils.isPositive(recordSize, "recordSize");
+        Assert.checkArgument(recordSize <= MAX_REGION_SIZE, String.format("recordSize must be <= %d", MAX_REGION_SIZE));
+        AssertUtils.nonNegative(capacity, "capacity");
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedRecordFile result = new MappedRecordFile(path, channel, false, recordSize);
+        try {
+            result.grow(Math.max(capacity, channel.size() / recordSize));
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+        return result;
+    }
+
+    /**
+     * 只读打开，记录数按文件大小计算，不足一条的尾部忽略
+     *
+     * @param path       文件
+     * @param recordSize 记录的字节数
+     * @return the {@link MappedRecordFile} instance
+     * @throws IOException 打开失败
+     */
+    public static MappedRecordFile openReadOnly(Path path, int recordSize) throws IOException {
+        AssertUtils.nonNull(path, "path");
+        AssertUtils.isPositive(recordSize, "recordSize");
+        Assert.checkArgument(recordSize <= MAX_REGION_SIZE, String.format("recordSize must be <= %d", MAX_REGION_SIZE));
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        MappedRecordFile result = new MappedRecordFile(path, channel, true, recordSize);
+        try {
+            result.map(channel.size() / recordSize);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+        return result;
+    }
+
+    /**
+     * 扩展到至少 capacity 条记录，新记录全 0，不缩小
+     *
+     * @param capacity 最少的记录数
+     * @throws IOException 扩展失败
+     */
+    public synchronized void grow(long capacity) throws IOException {
+        Assert.checkState(!readOnly, "file is read only");
+        AssertUtils.nonNegative(capacity, "capacity");
+
+        if (capacity <= this.capacity && regions.length > 0) {
+            return;
+        }
+
+        long size = Math.multiplyExact(capacity, (long) recordSize);
+        if (channel.size() < size) {
+            // 写最后一个字节扩展文件，稀疏文件不占用磁盘
+            channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+        }
+
+        map(capacity);
+    }
+
+    /**
+     * 刷盘，写入的数据持久化
+     *
+     * @throws IOException 刷盘失败
+     */
+    public void force() throws IOException {
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+    }
+
+    /**
+     * 关闭文件，读写打开时先刷盘
+     *
+     * @throws IOException 关闭失败
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (!readOnly && channel.isOpen()) {
+                force();
+            }
+        } finally {
+            capacity = 0L;
+            regions = new MappedByteBuffer[0];
+            channel.close();
+        }
+    }
+
+    /**
+     * 读 byte 字段
+     *
+     * @param index  记录的下标
+     * @param offset 字段在记录内的偏移
+     * @return the value
+     */
+    public byte getByte(long index, int offset) {
+        return region(index).get(position(index, offset, Byte.BYTES));
+    }
+
+    /**
+     * 写 byte 字段
+     *
+     * @param index  记录的下标
+     * @param offset 字段在记录内的偏移
+     * @param value  the value
+     */
+    public void putByte(long index, int offset, byte value) {
+        region(index).put(position(index, offset, Byte.BYTES), value);
+    }
+
+    /**
+     * 读 short 字段
+     *
+     * @param index  记录的下标
+     * @param offset 字段在记录内的偏移
+     * @return the value
+     */
+    public short getShort(long index, int offset) {
+        return region(index).getShort(position(index, offset, Short.BYTES));
+    }
+
+    /**
+     * 写 short 字段
+     *
+     * @param index  记录的下标
+     * @param offset 字段在记录内的偏移
+     * @param value  the value
+     */
+    public void putShort(long index, int offset, short value) {
+        region(index).putShort(position(index, offset, Short.BYTES), value);
+    }
+
+    /**
+     * 读 int 字段
+     *
+     * @param index  记录的下标
+     * @param offset 字段在记录内的偏移
+     * @return the value
+     */
+    public int getInt(long index, int offset) {
+        return region(index).getInt(position(index, offset, Integer.BYTES));
+    }
+
+    /**
+     * 写 int 字段
+     *
+     * @param index  记录的下标
+     * @param offset 字段在记录内的偏移
+     * @param value  the value
+     */
+    public void putInt(long index, int offset, int value) {
+        region(index).putInt(position(index, offset, Integer.BYTES), value);
+    }
+
+    /**
+     * 读 long 字段
+     *
+     * @param index  记录的下标
+     * @param offset 字段在记录内的偏移
+     * @return the value
+     */
+    public long getLong(long index, int offset) {
+        return region(index).getLong(position(index, offset, Long.BYTES));
+    }
+
+    /**
+     * 写 long 字段
+     *
+     * @param index  记录的下标
+     * @param offset 字段在记录内的偏移
+     * @param value  the value
+     */
+    public void putLong(long index, int offset, long value) {
+        region(index).putLong(position(index, offset, Long.BYTES), value);
+    }
+
+    /**
+     * 读 double 字段
+     *
+     * @param index  记录的下标
+     * @param offset 字段在记录内的偏移
+     * @return the value
+     */
+    public double getDouble(long index, int offset) {
+        return region(index).getDouble(position(index, offset, Double.BYTES));
+    }
+
+    /**
+     * 写 double 字段
+     *
+     * @param index  记录的下标
+     * @param offset 字段在记录内的偏移
+     * @param value  the value
+     */
+    public void putDouble(long index, int offset, double value) {
+        region(index).putDouble(position(index, offset, Double.BYTES), value);
+    }
+
+    /**
+     * 读整条记录
+     *
+     * @param index 记录的下标
+     * @param dst   长度 >= recordSize
+     */
+    public void get(long index, byte[] dst) {
+        AssertUtils.nonNull(dst, "dst");
+        Assert.checkArgument(dst.length >= recordSize, "dst.length must be >= recordSize");
+
+        region(index).get(position(index, 0, recordSize), dst, 0, recordSize);
+    }
+
+    /**
+     * 写整条记录
+     *
+     * @param index 记录的下标
+     * @param src   长度 >= recordSize，只写前 recordSize 字节
+     */
+    public void put(long index, byte[] src) {
+        AssertUtils.nonNull(src, "src");
+        Assert.checkArgument(src.length >= recordSize, "src.length must be >= recordSize");
+
+        region(index).put(position(index, 0, recordSize), src, 0, recordSize);
+    }
+
+    /**
+     * 记录数
+     *
+     * @return capacity
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * 映射前 capacity 条记录，已映射的完整区域复用，最后一个区域重新映射
+     */
+    private void map(long capacity) throws IOException {
+        MappedByteBuffer[] current = regions;
+        int count = (int) ((capacity + regionRecords - 1) / regionRecords);
+        MappedByteBuffer[] next = Arrays.copyOf(current, count);
+        FileChannel.MapMode mode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+
+        for (int i = 0; i < count; i++) {
+            long first = (long) i * regionRecords;
+            long records = Math.min(regionRecords, capacity - first);
+            long bytes = records * recordSize;
+            if (next[i] != null && next[i].capacity() == bytes) {
+                continue;
+            }
+
+            next[i] = channel.map(mode, first * recordSize, bytes);
+            next[i].order(BYTE_ORDER);
+        }
+
+        regions = next;
+        this.capacity = capacity;
+    }
+
+    /**
+     * 记录所在的区域
+     */
+    private MappedByteBuffer region(long index) {
+        Objects.checkIndex(index, capacity);
+        return regions[(int) (index / regionRecords)];
+    }
+
+    /**
+     * 字段在区域内的位置
+     */
+    private int position(long index, int offset, int width) {
+        Objects.checkFromIndexSize(offset, width, recordSize);
+        return (int) (index % regionRecords) * recordSize + offset;
+    }
+
+}
@@ -0,0 +1,203 @@
+package io.github.winter.boot.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 原始 Json，序列化时原样写入，不转义、不校验
+ * 保存 UTF-8 字节，写入字节流时只复制；写入字符流时才解码，解码一次
+ * 不可变，线程安全
+ *
+ * @author changebooks@qq.com
+ */
+public final class RawJson implements JsonSerializable {
+    /**
+     * Json
+     */
+    private final Utf8Value value;
+
+    private RawJson(Utf8Value value) {
+        this.value = value;
+    }
+
+    /**
+     * 原始 Json
+     *
+     * @param json a valid json string
+     * @return the {@link RawJson} instance
+     */
+    public static RawJson of(String json) {
+        AssertUtils.nonEmpty(json, "json");
+
+        return new RawJson(new Utf8Value(json.getBytes(StandardCharsets.UTF_8), new SerializedString(json)));
+    }
+
+    /**
+     * 原始 Json，复制字节，不解码
+     *
+     * @param json a valid json bytes, UTF-8
+     * @return the {@link RawJson} instance
+     */
+    public static RawJson of(byte[] json) {
+        AssertUtils.nonNull(json, "json");
+
+        return wrap(json.clone());
+    }
+
+    /**
+     * 原始 Json，不复制，调用方之后不能修改 json
+     */
+    static RawJson wrap(byte[] json) {
+        return new RawJson(new Utf8Value(json, null));
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(value);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    /**
+     * UTF-8 字节数
+     *
+     * @return length
+     */
+    public int length() {
+        return value.utf8.length;
+    }
+
+    /**
+     * UTF-8 字节，复制
+     *
+     * @return json bytes
+     */
+    public byte[] toBytes() {
+        return value.utf8.clone();
+    }
+
+    @Override
+    public String toString() {
+        return value.getValue();
+    }
+
+    /**
+     * UTF-8 字节，原样写入
+     * 字节流直接复制；字符流、加引号的写法委托给解码后的 {@link SerializedString}
+     */
+    private static final class Utf8Value implements SerializableString {
+        /**
+         * Json，UTF-8
+         */
+        private final byte[] utf8;
+
+        /**
+         * 解码后的 Json，第一次使用时解码，并发时可能重复解码，结果相同
+         */
+        private volatile SerializedString text;
+
+        Utf8Value(byte[] utf8, SerializedString text) {
+            this.utf8 = utf8;
+            this.text = text;
+        }
+
+        private SerializedString text() {
+            SerializedString r = text;
+            if (r == null) {
+                r = new SerializedString(new String(utf8, StandardCharsets.UTF_8));
+                text = r;
+            }
+            return r;
+        }
+
+        @Override
+        public String getValue() {
+            return text().getValue();
+        }
+
+        @Override
+        public int charLength() {
+            return text().charLength();
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            return text().asQuotedChars();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return utf8;
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return text().asQuotedUTF8();
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return text().appendQuotedUTF8(buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return text().appendQuoted(buffer, offset);
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + utf8.length > buffer.length) {
+                return -1;
+            }
+
+            System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+            return utf8.length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            return text().appendUnquoted(buffer, offset);
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return text().writeQuotedUTF8(out);
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(utf8);
+            return utf8.length;
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+            return text().putQuotedUTF8(buffer);
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (utf8.length > buffer.remaining()) {
+                return -1;
+            }
+
+            buffer.put(utf8);
+            return utf8.length;
+        }
+
+    }
+
+}
@@ -0,0 +1,398 @@
+package io.github.winter.boot.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.io.IOException;
+import java.lang.invoke.*;
+import java.lang.reflect.RecordComponent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Record 的序列化和反序列化，不用反射
+ * 注册时用 LambdaMetafactory 生成组件的访问器，用 MethodHandle 调用规范构造器
+ * int、long、double、boolean、String 组件直接读写，其它组件交给 Jackson
+ * 按组件名读写，不支持 Jackson 注解，通过 {@link JsonParser#registerRecord(Class)} 注册
+ *
+ * @param <R> the record type
+ * @author changebooks@qq.com
+ */
+final class RecordCodec<R extends Record> {
+    /**
+     * 组件类型
+     */
+    private static final int OTHER = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int DOUBLE = 3;
+    private static final int BOOLEAN = 4;
+    private static final int STRING = 5;
+
+    /**
+     * Record Class : Codec
+     */
+    private static final Map<Class<?>, RecordCodec<?>> REGISTRY = new ConcurrentHashMap<>();
+
+    /**
+     * 查找已注册的 Record，注册到 ObjectMapper
+     */
+    static final com.fasterxml.jackson.databind.Module MODULE = new SimpleModule(RecordCodec.class.getName()) {
+        @Override
+        public void setupModule(SetupContext context) {
+            super.setupModule(context);
+            context.addSerializers(new Serializers.Base() {
+                @Override
+                public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+                    RecordCodec<?> codec = REGISTRY.get(type.getRawClass());
+                    return codec != null ? codec.new RecordSerializer() : null;
+                }
+            });
+            context.addDeserializers(new Deserializers.Base() {
+                @Override
+                public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config, BeanDescription beanDesc) {
+                    RecordCodec<?> codec = REGISTRY.get(type.getRawClass());
+                    return codec != null ? codec.new RecordDeserializer() : null;
+                }
+            });
+        }
+    };
+
+    /**
+     * Record Class
+     */
+    private final Class<R> recordClass;
+
+    /**
+     * 组件名
+     */
+    private final String[] names;
+
+    /**
+     * 组件名，序列化用，预先编码
+     */
+    private final SerializedString[] serializedNames;
+
+    /**
+     * 组件类型，INT / LONG / ...
+     */
+    private final int[] kinds;
+
+    /**
+     * 组件的 JavaType
+     */
+    private final JavaType[] types;
+
+    /**
+     * 访问器，ToIntFunction / ToLongFunction / ToDoubleFunction / Predicate / Function
+     */
+    private final Object[] accessors;
+
+    /**
+     * 缺少的组件的默认值，基本类型 0 / false，其它 null
+     */
+    private final Object[] defaults;
+
+    /**
+     * 规范构造器，(Object[]) R
+     */
+    private final MethodHandle constructor;
+
+    private RecordCodec(Class<R> recordClass, TypeFactory typeFactory) throws Throwable {
+        RecordComponent[] components = recordClass.getRecordComponents();
+        int size = components.length;
+
+        this.recordClass = recordClass;
+        this.names = new String[size];
+        this.serializedNames = new SerializedString[size];
+        this.kinds = new int[size];
+        this.types = new JavaType[size];
+        this.accessors = new Object[size];
+        this.defaults = new Object[size];
+
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(recordClass, MethodHandles.lookup());
+        Class<?>[] parameterTypes = new Class<?>[size];
+
+        for (int i = 0; i < size; i++) {
+            RecordComponent component = components[i];
+            Class<?> type = component.getType();
+            MethodHandle getter = lookup.unreflect(component.getAccessor());
+
+            names[i] = component.getName();
+            serializedNames[i] = new SerializedString(component.getName());
+            kinds[i] = kindOf(type);
+            types[i] = typeFactory.constructType(component.getGenericType());
+            accessors[i] = accessor(lookup, getter, kinds[i]);
+            defaults[i] = defaultValue(type);
+            parameterTypes[i] = type;
+        }
+
+        this.constructor = lookup.findConstructor(recordClass, MethodType.methodType(void.class, parameterTypes))
+                .asSpreader(Object[].class, size)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    /**
+     * 注册，须在首次序列化或反序列化该类型之前，之前已解析的 Jackson 序列化器不会被替换
+     *
+     * @param recordClass the record class
+     * @param typeFactory the type factory
+     */
+    static void register(Class<? extends Record> recordClass, TypeFactory typeFactory) {
+        AssertUtils.nonNull(recordClass, "recordClass");
+        Assert.checkArgument(recordClass.isRecord(), "recordClass must be a record");
+
+        try {
+            REGISTRY.put(recordClass, new RecordCodec<>(recordClass, typeFactory));
+        } catch (Throwable ex) {
+            throw new IllegalArgumentException("recordClass is not accessible, " + recordClass.getName(), ex);
+        }
+    }
+
+    /**
+     * 组件类型
+     */
+    private static int kindOf(Class<?> type) {
+        if (type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == double.class) {
+            return DOUBLE;
+        } else if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == String.class) {
+            return STRING;
+        } else {
+            return OTHER;
+        }
+    }
+
+    /**
+     * 缺少组件时的默认值
+     */
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0.0f;
+        } else {
+            return 0.0d;
+        }
+    }
+
+    /**
+     * 生成访问器，基本类型不装箱
+     */
+    private static Object accessor(MethodHandles.Lookup lookup, MethodHandle getter, int kind) throws Throwable {
+        switch (kind) {
+            case INT:
+                return lambda(lookup, getter, ToIntFunction.class, "applyAsInt", MethodType.methodType(int.class, Object.class), getter.type());
+            case LONG:
+                return lambda(lookup, getter, ToLongFunction.class, "applyAsLong", MethodType.methodType(long.class, Object.class), getter.type());
+            case DOUBLE:
+                return lambda(lookup, getter, ToDoubleFunction.class, "applyAsDouble", MethodType.methodType(double.class, Object.class), getter.type());
+            case BOOLEAN:
+                return lambda(lookup, getter, Predicate.class, "test", MethodType.methodType(boolean.class, Object.class), getter.type());
+            default:
+                return lambda(lookup, getter, Function.class, "apply", MethodType.methodType(Object.class, Object.class), getter.type().wrap());
+        }
+    }
+
+    /**
+     * LambdaMetafactory 生成函数接口的实现
+     */
+    private static Object lambda(MethodHandles.Lookup lookup, MethodHandle getter, Class<?> interfaceClass,
+                                 String methodName, MethodType methodType, MethodType instantiatedType) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, methodName, MethodType.methodType(interfaceClass),
+                methodType, getter, instantiatedType);
+        return site.getTarget().invoke();
+    }
+
+    /**
+     * 组件的下标，先试 hint（按声明顺序时命中）
+     */
+    private int indexOf(String name, int hint) {
+        if (hint < names.length && names[hint].equals(name)) {
+            return hint;
+        }
+
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * 序列化器
+     */
+    private final class RecordSerializer extends StdSerializer<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        RecordSerializer() {
+            super(recordClass);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void serialize(R value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value, names.length);
+
+            for (int i = 0; i < names.length; i++) {
+                gen.writeFieldName(serializedNames[i]);
+
+                switch (kinds[i]) {
+                    case INT:
+                        gen.writeNumber(((ToIntFunction<Object>) accessors[i]).applyAsInt(value));
+                        break;
+                    case LONG:
+                        gen.writeNumber(((ToLongFunction<Object>) accessors[i]).applyAsLong(value));
+                        break;
+                    case DOUBLE:
+                        gen.writeNumber(((ToDoubleFunction<Object>) accessors[i]).applyAsDouble(value));
+                        break;
+                    case BOOLEAN:
+                        gen.writeBoolean(((Predicate<Object>) accessors[i]).test(value));
+                        break;
+                    case STRING:
+                        Object text = ((Function<Object, Object>) accessors[i]).apply(value);
+                        if (text != null) {
+                            gen.writeString((String) text);
+                        } else {
+                            gen.writeNull();
+                        }
+                        break;
+                    default:
+                        provider.defaultSerializeValue(((Function<Object, Object>) accessors[i]).apply(value), gen);
+                        break;
+                }
+            }
+
+            gen.writeEndObject();
+        }
+
+    }
+
+    /**
+     * 反序列化器，未知字段跳过，缺少的组件取默认值
+     */
+    private final class RecordDeserializer extends StdDeserializer<R> implements ResolvableDeserializer {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 组件的反序列化器，非快速路径使用
+         */
+        private final transient JsonDeserializer<?>[] deserializers = new JsonDeserializer<?>[names.length];
+
+        RecordDeserializer() {
+            super(recordClass);
+        }
+
+        @Override
+        public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+            for (int i = 0; i < types.length; i++) {
+                deserializers[i] = ctxt.findContextualValueDeserializer(types[i], null);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R deserialize(com.fasterxml.jackson.core.JsonParser p, DeserializationContext ctxt) throws IOException {
+            String name;
+            if (p.isExpectedStartObjectToken()) {
+                name = p.nextFieldName();
+            } else if (p.hasToken(JsonToken.FIELD_NAME)) {
+                name = p.currentName();
+            } else {
+                return (R) ctxt.handleUnexpectedToken(recordClass, p);
+            }
+
+            Object[] args = defaults.clone();
+            int hint = 0;
+
+            for (; name != null; name = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                int i = indexOf(name, hint);
+                if (i < 0) {
+                    p.skipChildren();
+                    continue;
+                }
+
+                hint = i + 1;
+                switch (kinds[i]) {
+                    case INT:
+                        args[i] = token == JsonToken.VALUE_NUMBER_INT ? p.getIntValue() : read(p, ctxt, token, i);
+                        break;
+                    case LONG:
+                        args[i] = token == JsonToken.VALUE_NUMBER_INT ? p.getLongValue() : read(p, ctxt, token, i);
+                        break;
+                    case DOUBLE:
+                        args[i] = token.isNumeric() ? p.getDoubleValue() : read(p, ctxt, token, i);
+                        break;
+                    case BOOLEAN:
+                        args[i] = token.isBoolean() ? token == JsonToken.VALUE_TRUE : read(p, ctxt, token, i);
+                        break;
+                    case STRING:
+                        args[i] = token == JsonToken.VALUE_STRING ? p.getText() : read(p, ctxt, token, i);
+                        break;
+                    default:
+                        args[i] = read(p, ctxt, token, i);
+                        break;
+                }
+            }
+
+            try {
+                Object value = constructor.invokeExact(args);
+                return (R) value;
+            } catch (Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                return (R) ctxt.handleInstantiationProblem(recordClass, null, ex);
+            }
+        }
+
+        /**
+         * 交给 Jackson，null、类型转换、报错同 Jackson
+         */
+        private Object read(com.fasterxml.jackson.core.JsonParser p, DeserializationContext ctxt, JsonToken token, int i) throws IOException {
+            if (token == JsonToken.VALUE_NULL) {
+                return deserializers[i].getNullValue(ctxt);
+            } else {
+                return deserializers[i].deserialize(p, ctxt);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+package io.github.winter.boot.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * 字符串 : 整数
+ * 开放寻址，线性探测，值不装箱
+ * 不支持删除，key 不能为 null，线程不安全
+ *
+ * @author changebooks@qq.com
+ */
+public final class StringIntMap {
+    /**
+     * 默认的预计数量
+     */
+    private static final int DEFAULT_EXPECTED_SIZE = 8;
+
+    /**
+     * 最大容量
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * key 列表，null 表示空位
+     */
+    private String[] keys;
+
+    /**
+     * value 列表
+     */
+    private int[] values;
+
+    /**
+     * 下标掩码
+     */
+    private int mask;
+
+    /**
+     * 扩容阈值，负载因子 0.5
+     */
+    private int threshold;
+
+    /**
+     * 数量
+     */
+    private int size;
+
+    public StringIntMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * 初始化
+     *
+     * @param expectedSize 预计的数量，达到前不扩容
+     */
+    public StringIntMap(int expectedSize) {
+        AssertUtils.nonNegative(expectedSize, "expectedSize");
+
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * 写入，已存在则覆盖
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(String key, int value) {
+        AssertUtils.nonNull(key, "key");
+
+        int i = slot(key);
+        if (keys[i] == null) {
+            if (size >= threshold) {
+                rehash(keys.length << 1);
+                i = slot(key);
+            }
+
+            keys[i] = key;
+            size++;
+        }
+
+        values[i] = value;
+    }
+
+    /**
+     * 读取
+     *
+     * @param key          the key
+     * @param defaultValue key 不存在时的值
+     * @return the value
+     */
+    public int get(String key, int defaultValue) {
+        if (key == null) {
+            return defaultValue;
+        }
+
+        int i = slot(key);
+        return keys[i] != null ? values[i] : defaultValue;
+    }
+
+    /**
+     * 包含 key？
+     *
+     * @param key the key
+     * @return contains ? true : false
+     */
+    public boolean containsKey(String key) {
+        return key != null && keys[slot(key)] != null;
+    }
+
+    /**
+     * 遍历，无序
+     *
+     * @param action 回调
+     */
+    public void forEach(ObjIntConsumer<String> action) {
+        AssertUtils.nonNull(action, "action");
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * 转为装箱的 Map
+     *
+     * @return a map
+     */
+    public Map<String, Integer> toMap() {
+        Map<String, Integer> r = new HashMap<>(size * 2);
+        forEach(r::put);
+        return r;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * key 所在的位置，或可插入的空位
+     */
+    private int slot(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        int i = (h ^ (h >>> 16)) & mask;
+        while (keys[i] != null && !keys[i].equals(key)) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * 扩容
+     */
+    private void rehash(int capacity) {
+        Assert.checkState(capacity <= MAX_CAPACITY, "map too large");
+
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int j = slot(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new String[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.threshold = capacity >>> 1;
+    }
+
+    /**
+     * 2的幂次方，不小于 expectedSize 的两倍
+     */
+    private static int capacityFor(int expectedSize) {
+        long n = Math.max(2L, (long) expectedSize * 2L);
+        Assert.checkArgument(n <= MAX_CAPACITY, "expectedSize too large");
+        return Integer.highestOneBit((int) n - 1) << 1;
+    }
+
+}
@@ -0,0 +1,299 @@
+package io.github.winter.boot.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按权重淘汰的 LRU，线程安全
+ * 读不加锁；访问顺序每个元素每 {@link #REORDER_MILLIS} 最多调整一次，拿不到锁时跳过，顺序是近似的
+ * 写入后在锁内追加到队尾，超出最大权重时从队首淘汰，单个元素超出时不缓存
+ * compute 在 {@link ConcurrentHashMap#compute} 内执行，同一 key 同时只有一个线程计算
+ *
+ * @param <K> key 的类型
+ * @param <V> value 的类型
+ * @author changebooks@qq.com
+ */
+final class WeightedLru<K, V> {
+    /**
+     * 访问顺序的调整间隔，毫秒
+     */
+    static final long REORDER_MILLIS = 100L;
+
+    /**
+     * 最大权重
+     */
+    private final long maxWeight;
+
+    /**
+     * 权重
+     */
+    private final ToLongFunction<? super V> weigher;
+
+    /**
+     * key : 节点
+     */
+    private final ConcurrentHashMap<K, Node<K, V>> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * 保护访问顺序和当前权重
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 访问顺序，哨兵，head.next 最久未访问
+     */
+    private final Node<K, V> head = new Node<>(null, null, 0L);
+
+    /**
+     * 淘汰数
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 当前权重，锁内写
+     */
+    private volatile long weight;
+
+    WeightedLru(long maxWeight, ToLongFunction<? super V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.head.prev = head;
+        this.head.next = head;
+    }
+
+    /**
+     * 读，记录访问
+     *
+     * @return value, 不存在 return null
+     */
+    V get(K key) {
+        Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            return null;
+        }
+
+        touch(node);
+        return node.value;
+    }
+
+    /**
+     * 写入，替换旧值
+     */
+    void put(K key, V value) {
+        Node<K, V> node = new Node<>(key, value, weigher.applyAsLong(value));
+        Node<K, V> previous = nodes.put(key, node);
+        admit(key, node, previous);
+    }
+
+    /**
+     * 计算，同一 key 同时只有一个线程计算，其它线程等待结果
+     * 返回旧值时不变；返回 null 时删除
+     *
+     * @param key      the key
+     * @param function (key, 旧值 or null) -&gt; 新值 or null，不能修改本缓存
+     * @return 新值
+     */
+    V compute(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        @SuppressWarnings("unchecked")
+        Node<K, V>[] replaced = (Node<K, V>[]) new Node<?, ?>[1];
+        Node<K, V> node = nodes.compute(key, (k, previous) -> {
+            V value = function.apply(k, previous != null ? previous.value : null);
+            if (previous != null && value == previous.value) {
+                return previous;
+            }
+
+            replaced[0] = previous;
+            return value != null ? new Node<>(k, value, weigher.applyAsLong(value)) : null;
+        });
+
+        if (node == null) {
+            admit(key, null, replaced[0]);
+            return null;
+        }
+
+        if (node.linked) {
+            touch(node);
+        } else {
+            admit(key, node, replaced[0]);
+        }
+        return node.value;
+    }
+
+    /**
+     * 删除
+     *
+     * @return 删除的值, 不存在 return null
+     */
+    V remove(K key) {
+        Node<K, V> node = nodes.remove(key);
+        if (node == null) {
+            return null;
+        }
+
+        admit(key, null, node);
+        return node.value;
+    }
+
+    /**
+     * 删除满足条件的
+     */
+    void removeIf(Predicate<? super K> filter) {
+        for (K key : nodes.keySet()) {
+            if (filter.test(key)) {
+                remove(key);
+            }
+        }
+    }
+
+    /**
+     * 清空
+     */
+    void clear() {
+        removeIf(key -> true);
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    long getWeight() {
+        return weight;
+    }
+
+    long getMaxWeight() {
+        return maxWeight;
+    }
+
+    long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * 锁内：摘下被替换的，追加仍在 map 中的新节点，淘汰
+     */
+    private void admit(K key, Node<K, V> node, Node<K, V> replaced) {
+        lock.lock();
+        try {
+            if (replaced != null) {
+                unlink(replaced);
+            }
+
+            if (node == null || nodes.get(key) != node) {
+                return;
+            }
+
+            if (node.weight > maxWeight) {
+                nodes.remove(key, node);
+                return;
+            }
+
+            link(node);
+            while (weight > maxWeight && head.next != head) {
+                Node<K, V> eldest = head.next;
+                unlink(eldest);
+                nodes.remove(eldest.key, eldest);
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 移到队尾，间隔内不重复移动，拿不到锁时跳过
+     */
+    private void touch(Node<K, V> node) {
+        long now = CoarseClock.currentTimeMillis();
+        if (now - node.touchedAt < REORDER_MILLIS || !lock.tryLock()) {
+            return;
+        }
+
+        try {
+            if (node.linked) {
+                node.prev.next = node.next;
+                node.next.prev = node.prev;
+                node.prev = head.prev;
+                node.next = head;
+                head.prev.next = node;
+                head.prev = node;
+            }
+            node.touchedAt = now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 锁内：追加到队尾
+     */
+    private void link(Node<K, V> node) {
+        if (node.linked) {
+            return;
+        }
+
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+        node.linked = true;
+        node.touchedAt = CoarseClock.currentTimeMillis();
+        weight += node.weight;
+    }
+
+    /**
+     * 锁内：摘下
+     */
+    private void unlink(Node<K, V> node) {
+        if (!node.linked) {
+            return;
+        }
+
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        node.linked = false;
+        weight -= node.weight;
+    }
+
+    /**
+     * 节点，prev、next、linked 锁内读写
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        /**
+         * 权重
+         */
+        private final long weight;
+
+        private Node<K, V> prev;
+
+        private Node<K, V> next;
+
+        /**
+         * 在访问顺序中？
+         */
+        private volatile boolean linked;
+
+        /**
+         * 上次调整访问顺序的时间，毫秒
+         */
+        private volatile long touchedAt;
+
+        Node(K key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+
+    }
+
+}
@@ -0,0 +1,191 @@
+package io.github.winter.boot.util;
+
+import java.time.*;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 时区偏移表
+ * 预先展开 1900 ~ 2100 年的偏移变化，查表代替 {@link ZoneRules}，不创建对象
+ * 超出范围时使用 {@link ZoneRules}
+ * 按 ZoneId 缓存，线程安全
+ *
+ * @author changebooks@qq.com
+ */
+public final class ZoneOffsets {
+    /**
+     * 展开的起始时间戳，1900-01-01T00:00:00Z，单位：秒
+     */
+    public static final long START_SECOND = -2208988800L;
+
+    /**
+     * 展开的结束时间戳，2100-01-01T00:00:00Z，单位：秒
+     */
+    public static final long END_SECOND = 4102444800L;
+
+    /**
+     * ZoneId : 偏移表
+     */
+    private static final Map<ZoneId, ZoneOffsets> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 时区规则
+     */
+    private final ZoneRules rules;
+
+    /**
+     * 变化时间戳，升序，单位：秒
+     */
+    private final long[] transitions;
+
+    /**
+     * 本地时间的分界，升序，单位：秒
+     * 本地时间 lt 分界取变化前的偏移，否则取变化后的偏移
+     * 夏令时重叠取较早的偏移，间隙顺延，同 {@link ZonedDateTime#of(LocalDateTime, ZoneId)}
+     */
+    private final long[] localThresholds;
+
+    /**
+     * 本地时间的分界，夏令时重叠取较晚的偏移，同 {@link java.util.GregorianCalendar}，单位：秒
+     */
+    private final long[] laterLocalThresholds;
+
+    /**
+     * 偏移，单位：秒，offsets[i] 是 transitions[i] 之前的偏移，长度 transitions.length + 1
+     */
+    private final int[] offsets;
+
+    private ZoneOffsets(ZoneId zone) {
+        this.rules = zone.getRules();
+
+        if (rules.isFixedOffset()) {
+            this.transitions = new long[0];
+            this.localThresholds = new long[0];
+            this.laterLocalThresholds = new long[0];
+            this.offsets = new int[]{rules.getOffset(Instant.EPOCH).getTotalSeconds()};
+            return;
+        }
+
+        List<ZoneOffsetTransition> list = new ArrayList<>();
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(START_SECOND));
+        while (transition != null && transition.toEpochSecond() < END_SECOND) {
+            list.add(transition);
+            transition = rules.nextTransition(transition.getInstant());
+        }
+
+        int size = list.size();
+        this.transitions = new long[size];
+        this.localThresholds = new long[size];
+        this.laterLocalThresholds = new long[size];
+        this.offsets = new int[size + 1];
+        this.offsets[0] = rules.getOffset(Instant.ofEpochSecond(START_SECOND)).getTotalSeconds();
+
+        for (int i = 0; i < size; i++) {
+            transition = list.get(i);
+            int before = transition.getOffsetBefore().getTotalSeconds();
+            int after = transition.getOffsetAfter().getTotalSeconds();
+
+            this.transitions[i] = transition.toEpochSecond();
+            this.localThresholds[i] = transition.toEpochSecond() + Math.max(before, after);
+            this.laterLocalThresholds[i] = transition.toEpochSecond() + after;
+            this.offsets[i + 1] = after;
+        }
+    }
+
+    /**
+     * 偏移表，按 ZoneId 缓存
+     *
+     * @param zone 时区
+     * @return the {@link ZoneOffsets} instance
+     */
+    public static ZoneOffsets of(ZoneId zone) {
+        AssertUtils.nonNull(zone, "zone");
+
+        return CACHE.computeIfAbsent(zone, ZoneOffsets::new);
+    }
+
+    /**
+     * 时间戳的偏移
+     *
+     * @param epochSecond 时间戳，单位：秒
+     * @return 偏移，单位：秒
+     */
+    public int offsetSeconds(long epochSecond) {
+        if (transitions.length == 0) {
+            return offsets[0];
+        }
+
+        if (epochSecond < START_SECOND || epochSecond >= END_SECOND) {
+            return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        }
+
+        return offsets[insertionPoint(transitions, epochSecond)];
+    }
+
+    /**
+     * 本地时间的秒数 to 时间戳
+     * 夏令时重叠取较早的偏移，间隙顺延，同 {@link ZonedDateTime#of(LocalDateTime, ZoneId)}
+     *
+     * @param localSeconds 本地时间的秒数，1970-01-01T00:00:00 起
+     * @return 时间戳，单位：秒
+     */
+    public long toEpochSecond(long localSeconds) {
+        return toEpochSecond(localSeconds, false);
+    }
+
+    /**
+     * 本地时间的秒数 to 时间戳
+     * 间隙顺延；夏令时重叠时 laterOffset ? 取较晚的偏移（同 SimpleDateFormat）: 取较早的偏移
+     *
+     * @param localSeconds 本地时间的秒数，1970-01-01T00:00:00 起
+     * @param laterOffset  重叠时取较晚的偏移？eg: 纽约 2022-11-06 01:30 取 EST
+     * @return 时间戳，单位：秒
+     */
+    public long toEpochSecond(long localSeconds, final boolean laterOffset) {
+        if (transitions.length == 0) {
+            return localSeconds - offsets[0];
+        }
+
+        if (localSeconds < START_SECOND || localSeconds >= END_SECOND) {
+            LocalDateTime local = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC);
+            ZoneOffsetTransition transition = laterOffset ? rules.getTransition(local) : null;
+            ZoneOffset offset = transition != null && transition.isOverlap() ? transition.getOffsetAfter() : rules.getOffset(local);
+            return localSeconds - offset.getTotalSeconds();
+        }
+
+        return localSeconds - offsets[insertionPoint(laterOffset ? laterLocalThresholds : localThresholds, localSeconds)];
+    }
+
+    /**
+     * 时间戳 to 本地时间的秒数
+     *
+     * @param epochSecond 时间戳，单位：秒
+     * @return 本地时间的秒数，1970-01-01T00:00:00 起
+     */
+    public long toLocalSeconds(long epochSecond) {
+        return epochSecond + offsetSeconds(epochSecond);
+    }
+
+    /**
+     * 固定偏移？
+     *
+     * @return fixed ? true : false
+     */
+    public boolean isFixedOffset() {
+        return transitions.length == 0;
+    }
+
+    /**
+     * 小于等于 key 的元素数量
+     */
+    private static int insertionPoint(long[] sorted, long key) {
+        int i = Arrays.binarySearch(sorted, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+}
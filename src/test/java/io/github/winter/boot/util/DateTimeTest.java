@@ -0,0 +1,75 @@
+package io.github.winter.boot.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * DateTime 与 SimpleDateFormat 的一致性
+ *
+ * @author changebooks@qq.com
+ */
+class DateTimeTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    @Test
+    void parseFallBackHour() throws ParseException {
+        // 01:30 出现两次，EDT 1667712600000，EST 1667716200000
+        assertEquals(1667716200000L, DateTime.parse("2022-11-06 01:30:00", DateTime.PATTERN, NEW_YORK).getTime());
+        assertEquals(1667716200000L, DateTime.parse("2022-11-06 01:30:00.000", "yyyy-MM-dd HH:mm:ss.SSS", NEW_YORK).getTime());
+        assertEquals(1667712600000L, DateTime.parseInstant("2022-11-06 01:30:00", DateTime.PATTERN, NEW_YORK).toEpochMilli());
+
+        for (String source : new String[]{"2022-11-06 00:59:59", "2022-11-06 01:00:00", "2022-11-06 01:59:59", "2022-11-06 02:00:00", "2099-11-01 01:30:00", "2150-11-01 01:30:00"}) {
+            assertSameAsLegacy(source, DateTime.PATTERN, NEW_YORK);
+        }
+    }
+
+    @Test
+    void parseSpringForwardGap() throws ParseException {
+        for (String source : new String[]{"2022-03-13 01:59:59", "2022-03-13 02:30:00", "2022-03-13 03:00:00", "2150-03-08 02:30:00"}) {
+            assertSameAsLegacy(source, DateTime.PATTERN, NEW_YORK);
+        }
+    }
+
+    @Test
+    void parseTwoDigitYear() throws ParseException {
+        assertSameAsLegacy("99-02-22", "yy-MM-dd", NEW_YORK);
+        assertSameAsLegacy("22-02-22", "yy-MM-dd", NEW_YORK);
+        assertSameAsLegacy("2022-02-22", "yy-MM-dd", NEW_YORK);
+    }
+
+    @Test
+    void parseMilliseconds() throws ParseException {
+        assertSameAsLegacy("2022-02-22 22:22:22.5", "yyyy-MM-dd HH:mm:ss.S", NEW_YORK);
+        assertSameAsLegacy("2022-02-22 22:22:22.007", "yyyy-MM-dd HH:mm:ss.SSS", NEW_YORK);
+        assertSameAsLegacy("20220222222222123", "yyyyMMddHHmmssSSS", NEW_YORK);
+    }
+
+    @Test
+    void formatLegacyLetters() {
+        long[] times = {1645539742007L, 1645539742123L, 946684800050L};
+        for (String pattern : new String[]{"yy-MM-dd", "S", "SS", "SSS", "HH:mm:ss.S"}) {
+            for (long time : times) {
+                assertEquals(legacy(pattern, NEW_YORK).format(new Date(time)), DateTime.format(new Date(time), pattern, NEW_YORK), pattern);
+            }
+        }
+    }
+
+    private static void assertSameAsLegacy(String source, String pattern, ZoneId zone) throws ParseException {
+        assertEquals(legacy(pattern, zone).parse(source).getTime(), DateTime.parse(source, pattern, zone).getTime(), source);
+    }
+
+    private static SimpleDateFormat legacy(String pattern, ZoneId zone) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern);
+        format.setTimeZone(TimeZone.getTimeZone(zone));
+        return format;
+    }
+
+}
@@ -0,0 +1,152 @@
+package io.github.winter.boot.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * FileUtils 的复制、发送
+ *
+ * @author changebooks@qq.com
+ */
+class FileUtilsTest {
+    /**
+     * 超过 2G 的稀疏文件，单次 transferTo 最多 2G，须循环
+     */
+    private static final long LARGE_SIZE = (1L << 31) + 4096L;
+
+    /**
+     * 标记的位置：文件头、跨 2G 边界、文件尾
+     */
+    private static final long[] MARKER_POSITIONS = {0L, (1L << 31) - 4L, LARGE_SIZE - 8L};
+
+    private static final byte[] MARKER = "winter-8".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void copyLargeFile() throws IOException {
+        Path source = createLargeFile();
+        // 目标可能不稀疏，留出源文件大小的空间
+        assumeTrue(Files.getFileStore(directory).getUsableSpace() > (LARGE_SIZE << 1), "not enough disk space");
+
+        Path target = directory.resolve("target.bin");
+        assertEquals(LARGE_SIZE, FileUtils.copy(source, target));
+        assertEquals(LARGE_SIZE, Files.size(target));
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+            for (long position : MARKER_POSITIONS) {
+                ByteBuffer buffer = ByteBuffer.allocate(MARKER.length);
+                channel.read(buffer, position);
+                assertArrayEquals(MARKER, buffer.array(), "marker at " + position);
+            }
+        }
+    }
+
+    @Test
+    void transferLargeFile() throws IOException {
+        Path source = createLargeFile();
+
+        MarkerChannel target = new MarkerChannel();
+        assertEquals(LARGE_SIZE, FileUtils.transfer(source, target));
+        assertEquals(LARGE_SIZE, target.position);
+
+        for (int i = 0; i < MARKER_POSITIONS.length; i++) {
+            assertArrayEquals(MARKER, target.markers[i], "marker at " + MARKER_POSITIONS[i]);
+        }
+    }
+
+    @Test
+    void transferRange() throws IOException {
+        Path source = directory.resolve("source.txt");
+        Files.write(source, "0123456789".getBytes(StandardCharsets.US_ASCII));
+
+        Path target = directory.resolve("target.txt");
+        Files.write(target, "abcdefghij".getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals(3L, FileUtils.copy(source, 2L, 3L, target, 5L));
+        assertEquals("abcde234ij", new String(Files.readAllBytes(target), StandardCharsets.US_ASCII));
+
+        // 超出文件尾时截止到文件尾
+        assertEquals(2L, FileUtils.copy(source, 8L, 100L, target, 0L));
+        assertEquals("89cde234ij", new String(Files.readAllBytes(target), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void copyToSameFile() throws IOException {
+        byte[] data = "same file".getBytes(StandardCharsets.US_ASCII);
+        Path source = directory.resolve("same.txt");
+        Files.write(source, data);
+
+        assertThrows(IllegalArgumentException.class, () -> FileUtils.copy(source, source));
+        assertThrows(IllegalArgumentException.class, () -> FileUtils.copy(source, directory.resolve(".").resolve("same.txt")));
+        assertArrayEquals(data, Files.readAllBytes(source));
+    }
+
+    /**
+     * 稀疏文件，只写标记，不占用 2G 的磁盘
+     */
+    private Path createLargeFile() throws IOException {
+        Path path = directory.resolve("large.bin");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.SPARSE)) {
+            for (long position : MARKER_POSITIONS) {
+                channel.write(ByteBuffer.wrap(MARKER), position);
+            }
+        }
+
+        assertEquals(LARGE_SIZE, Files.size(path));
+        return path;
+    }
+
+    /**
+     * 只记录字节数和标记位置的内容
+     */
+    private static final class MarkerChannel implements WritableByteChannel {
+
+        private final byte[][] markers = new byte[MARKER_POSITIONS.length][MARKER.length];
+
+        private long position;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int num = src.remaining();
+            for (int i = 0; i < MARKER_POSITIONS.length; i++) {
+                for (int j = 0; j < MARKER.length; j++) {
+                    long p = MARKER_POSITIONS[i] + j;
+                    if (p >= position && p < position + num) {
+                        markers[i][j] = src.get(src.position() + (int) (p - position));
+                    }
+                }
+            }
+
+            src.position(src.limit());
+            position += num;
+            return num;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}